@@ -0,0 +1,88 @@
+package ru.practicum.shareit.benchmark;
+
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.BookingView;
+import ru.practicum.shareit.item.Comment;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.user.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+final class BenchmarkData {
+
+    static final long OWNER_ID = 1L;
+
+    static final String[] WORDS = {"drill", "ladder", "tent", "bike", "saw", "kayak", "camera", "tripod",
+        "projector", "speaker", "hammer", "grill", "scooter", "helmet", "lamp", "cable"};
+
+    final User owner;
+    final List<User> bookers = new ArrayList<>();
+    final List<Item> items = new ArrayList<>();
+    final List<Booking> bookings = new ArrayList<>();
+    final List<BookingView> bookingViews = new ArrayList<>();
+    final List<Comment> comments = new ArrayList<>();
+
+    BenchmarkData(int itemCount, int bookingCount) {
+        Random random = new Random(42);
+        LocalDateTime now = LocalDateTime.now();
+        owner = user(OWNER_ID);
+        for (long id = 2; id < 102; id++) {
+            bookers.add(user(id));
+        }
+        for (long id = 1; id <= itemCount; id++) {
+            Item item = new Item();
+            item.setId(id);
+            item.setName(word(random) + " " + word(random) + " " + id);
+            item.setDescription("A " + word(random) + " with a " + word(random) + " and a spare " + word(random));
+            item.setAvailable(random.nextInt(4) != 0);
+            item.setOwner(owner);
+            items.add(item);
+        }
+        for (long id = 1; id <= bookingCount; id++) {
+            LocalDateTime start = now.plusHours(random.nextInt(24 * 365) - 24 * 180);
+            Booking booking = Booking.builder()
+                    .id(id)
+                    .item(items.get(random.nextInt(items.size())))
+                    .booker(bookers.get(random.nextInt(bookers.size())))
+                    .start(start)
+                    .end(start.plusHours(1 + random.nextInt(72)))
+                    .status(BookingStatus.values()[random.nextInt(3)])
+                    .build();
+            bookings.add(booking);
+            bookingViews.add(view(booking));
+            if (id % 4 == 0) {
+                comments.add(Comment.builder()
+                        .id(id)
+                        .text("Worked fine, " + word(random))
+                        .item(booking.getItem())
+                        .author(booking.getBooker())
+                        .created(booking.getEnd())
+                        .build());
+            }
+        }
+    }
+
+    private static BookingView view(Booking booking) {
+        Item item = booking.getItem();
+        User booker = booking.getBooker();
+        return new BookingView(booking.getId(), booking.getStart(), booking.getEnd(), booking.getStatus(),
+                item.getId(), item.getName(), item.getDescription(), item.getAvailable(), item.getRequestId(),
+                booker.getId(), booker.getName(), booker.getEmail());
+    }
+
+    private static User user(long id) {
+        User user = new User();
+        user.setId(id);
+        user.setName("user" + id);
+        user.setEmail("user" + id + "@example.com");
+        return user;
+    }
+
+    private static String word(Random random) {
+        return WORDS[random.nextInt(WORDS.length)];
+    }
+}
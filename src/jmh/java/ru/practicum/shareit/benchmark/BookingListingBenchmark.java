@@ -0,0 +1,70 @@
+package ru.practicum.shareit.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.booking.BookingDto;
+import ru.practicum.shareit.booking.BookingMapper;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.BookingServiceImpl;
+import ru.practicum.shareit.booking.BookingState;
+import ru.practicum.shareit.item.ItemMapper;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.user.UserDto;
+import ru.practicum.shareit.user.UserMapper;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.UserService;
+
+import java.util.List;
+import java.util.Map;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class BookingListingBenchmark {
+
+    @Param({"100", "10000"})
+    public int bookingCount;
+
+    private BookingServiceImpl bookingService;
+    private ObjectMapper objectMapper;
+    private List<BookingDto> bookingDtos;
+
+    @Setup
+    public void setUp() {
+        BenchmarkData data = new BenchmarkData(1000, bookingCount);
+        BookingRepository bookingRepository = Stubs.of(BookingRepository.class,
+                Map.of("findViewsByItemOwnerId", args -> data.bookingViews));
+        UserService userService = Stubs.of(UserService.class,
+                Map.of("getUserById", args -> new UserDto(BenchmarkData.OWNER_ID, "owner", "owner@example.com")));
+        bookingService = new BookingServiceImpl(bookingRepository, Stubs.of(UserRepository.class, Map.of()),
+                userService, Stubs.of(ItemRepository.class, Map.of()), new BookingMapper(), new ItemMapper(),
+                new UserMapper(), event -> { });
+        objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        bookingDtos = bookingService.getAllBookingsByOwnerId(BenchmarkData.OWNER_ID, BookingState.ALL);
+    }
+
+    @Benchmark
+    public List<BookingDto> getAllBookingsByOwnerId() {
+        return bookingService.getAllBookingsByOwnerId(BenchmarkData.OWNER_ID, BookingState.ALL);
+    }
+
+    @Benchmark
+    public byte[] serializeBookingDtos() throws Exception {
+        return objectMapper.writeValueAsBytes(bookingDtos);
+    }
+}
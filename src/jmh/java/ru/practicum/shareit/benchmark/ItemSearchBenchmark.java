@@ -0,0 +1,112 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.ShareItApp;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemSearchBackend;
+import ru.practicum.shareit.item.ItemSearchIndex;
+import ru.practicum.shareit.item.ItemService;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Boots the application against the benchmark datasource (in-memory H2 unless overridden, see
+ * application-benchmark.properties) so the LIKE and FULL_TEXT arms run the real repository queries.
+ * FULL_TEXT needs PostgreSQL: {@code -p backend=FULL_TEXT -jvmArgsAppend -Dspring.datasource.url=jdbc:postgresql://...}.
+ * Every trial runs in its own fork, so the H2 database lives in a file per item count under
+ * {@code -Dbenchmark.data-dir} (default {@code target/benchmark-db}) and is seeded by the first trial that needs it;
+ * the other backends and query strings reuse it. A database whose item count doesn't match is reseeded. The fork's
+ * heap comes from the {@code benchmark.heap} Maven property; the 5M-item trial's trigram postings need about 24g.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ItemSearchBenchmark {
+
+    private static final int BATCH_SIZE = 1000;
+
+    @Param({"INDEX", "LIKE"})
+    public ItemSearchBackend backend;
+
+    @Param({"100000", "1000000", "5000000"})
+    public int itemCount;
+
+    @Param({"dri", "kayak"})
+    public String text;
+
+    private ConfigurableApplicationContext context;
+    private ItemService itemService;
+
+    @Setup
+    public void setUp() {
+        SpringApplication application = new SpringApplication(ShareItApp.class);
+        application.setAdditionalProfiles("benchmark");
+        List<String> args = new ArrayList<>();
+        args.add("--shareit.item-search.backend=" + backend);
+        if (System.getProperty("spring.datasource.url") == null) {
+            Path file = Path.of(System.getProperty("benchmark.data-dir", "target/benchmark-db"), "items-" + itemCount);
+            args.add("--spring.datasource.url=jdbc:h2:file:" + file.toAbsolutePath() + ";MODE=PostgreSQL");
+        }
+        context = application.run(args.toArray(String[]::new));
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        Long seeded = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM items", Long.class);
+        if (seeded == null || seeded != itemCount) {
+            seed(jdbcTemplate);
+        }
+        context.getBean(ItemSearchIndex.class).rebuild();
+        itemService = context.getBean(ItemService.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Item> searchItems() {
+        return itemService.searchItems(text, 0, 100);
+    }
+
+    private void seed(JdbcTemplate jdbcTemplate) {
+        for (String table : List.of("comments", "bookings", "items", "item_requests", "users")) {
+            jdbcTemplate.execute("DELETE FROM " + table);
+        }
+        Random random = new Random(42);
+        jdbcTemplate.update("INSERT INTO users (name, email) VALUES (?, ?)", "owner", "owner@example.com");
+        Long ownerId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM users", Long.class);
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 1; i <= itemCount; i++) {
+            batch.add(new Object[] {word(random) + " " + word(random) + " " + i,
+                "A " + word(random) + " with a " + word(random) + " and a spare " + word(random),
+                random.nextInt(4) != 0, ownerId});
+            if (batch.size() == BATCH_SIZE || i == itemCount) {
+                jdbcTemplate.batchUpdate("INSERT INTO items (name, description, available, owner_id) VALUES (?, ?, ?, ?)",
+                        batch);
+                batch.clear();
+            }
+        }
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    private static String word(Random random) {
+        return BenchmarkData.WORDS[random.nextInt(BenchmarkData.WORDS.length)];
+    }
+}
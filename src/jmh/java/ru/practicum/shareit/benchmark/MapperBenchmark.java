@@ -0,0 +1,51 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingDto;
+import ru.practicum.shareit.booking.BookingMapper;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemDto;
+import ru.practicum.shareit.item.ItemMapper;
+import ru.practicum.shareit.user.UserMapper;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class MapperBenchmark {
+
+    private final BookingMapper bookingMapper = new BookingMapper();
+    private final ItemMapper itemMapper = new ItemMapper();
+    private final UserMapper userMapper = new UserMapper();
+
+    private Booking booking;
+    private Item item;
+
+    @Setup
+    public void setUp() {
+        BenchmarkData data = new BenchmarkData(10, 10);
+        booking = data.bookings.get(0);
+        item = data.items.get(0);
+    }
+
+    @Benchmark
+    public BookingDto toBookingDto() {
+        return bookingMapper.toBookingDto(booking, itemMapper.toItemDto(booking.getItem()),
+                userMapper.toUserDto(booking.getBooker()));
+    }
+
+    @Benchmark
+    public ItemDto toItemDto() {
+        return itemMapper.toItemDto(item);
+    }
+}
@@ -0,0 +1,60 @@
+package ru.practicum.shareit.loadtest;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+class EndpointStats {
+
+    private long[] latenciesNanos = new long[1024];
+    private int count;
+    private int errors;
+
+    synchronized void record(long latencyNanos, int status) {
+        if (count == latenciesNanos.length) {
+            latenciesNanos = Arrays.copyOf(latenciesNanos, count * 2);
+        }
+        latenciesNanos[count++] = latencyNanos;
+        if (status < 200 || status >= 300) {
+            errors++;
+        }
+    }
+
+    void addAll(EndpointStats other) {
+        long[] latencies;
+        int otherErrors;
+        synchronized (other) {
+            latencies = Arrays.copyOf(other.latenciesNanos, other.count);
+            otherErrors = other.errors;
+        }
+        synchronized (this) {
+            for (long latency : latencies) {
+                record(latency, 200);
+            }
+            errors += otherErrors;
+        }
+    }
+
+    synchronized Map<String, Object> summary(long elapsedNanos) {
+        long[] sorted = Arrays.copyOf(latenciesNanos, count);
+        Arrays.sort(sorted);
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("requests", count);
+        summary.put("errors", errors);
+        summary.put("throughputPerSecond", count * 1_000_000_000.0 / elapsedNanos);
+        summary.put("p50Ms", percentile(sorted, 0.50));
+        summary.put("p90Ms", percentile(sorted, 0.90));
+        summary.put("p99Ms", percentile(sorted, 0.99));
+        summary.put("p999Ms", percentile(sorted, 0.999));
+        summary.put("maxMs", sorted.length == 0 ? 0.0 : sorted[sorted.length - 1] / 1_000_000.0);
+        return summary;
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0.0;
+        }
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1_000_000.0;
+    }
+}
@@ -0,0 +1,33 @@
+package ru.practicum.shareit.loadtest;
+
+import lombok.Value;
+
+@Value
+class LoadTestConfig {
+    int users;
+    int owners;
+    int items;
+    int bookings;
+    int comments;
+    int concurrency;
+    int warmupRequests;
+    int requests;
+    String report;
+    boolean compareThreads;
+
+    static LoadTestConfig fromSystemProperties() {
+        int users = Integer.getInteger("loadtest.users", 1000);
+        boolean compareThreads = Boolean.getBoolean("loadtest.compare-threads");
+        return new LoadTestConfig(
+                users,
+                Integer.getInteger("loadtest.owners", Math.max(1, users / 10)),
+                Integer.getInteger("loadtest.items", 10000),
+                Integer.getInteger("loadtest.bookings", 100000),
+                Integer.getInteger("loadtest.comments", 20000),
+                Integer.getInteger("loadtest.concurrency", compareThreads ? 1000 : 32),
+                Integer.getInteger("loadtest.warmup", 2000),
+                Integer.getInteger("loadtest.requests", 20000),
+                System.getProperty("loadtest.report", "target/loadtest-report.json"),
+                compareThreads);
+    }
+}
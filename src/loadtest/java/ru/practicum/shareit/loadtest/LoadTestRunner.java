@@ -0,0 +1,208 @@
+package ru.practicum.shareit.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.ShareItApp;
+import ru.practicum.shareit.booking.BookingState;
+import ru.practicum.shareit.item.ItemBookingPointers;
+import ru.practicum.shareit.item.ItemSearchIndex;
+
+import java.io.File;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Slf4j
+public class LoadTestRunner {
+
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+    private static final String SEARCH = "GET /items/search";
+    private static final String OWNER_BOOKINGS = "GET /bookings/owner";
+    private static final String ITEM = "GET /items/{id}";
+    private static final String CREATE_BOOKING = "POST /bookings";
+
+    private final LoadTestConfig config;
+    private final LoadTestSeeder seeder;
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .build();
+    private final String baseUrl;
+    private final Map<String, EndpointStats> stats = new LinkedHashMap<>();
+
+    LoadTestRunner(LoadTestConfig config, LoadTestSeeder seeder, int port) {
+        this.config = config;
+        this.seeder = seeder;
+        this.baseUrl = "http://localhost:" + port;
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.fromSystemProperties();
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("config", config);
+        if (config.isCompareThreads()) {
+            // Same data, workload and client for both runs; only the server's request threads and bulkhead differ
+            report.put("platformThreads", runScenario(config, args, "loadtest"));
+            report.put("virtualThreads", runScenario(config, args, "loadtest", "virtual-threads"));
+        } else {
+            report.putAll(runScenario(config, args, "loadtest"));
+        }
+        writeReport(config, report);
+    }
+
+    private static Map<String, Object> runScenario(LoadTestConfig config, String[] args, String... profiles)
+            throws InterruptedException {
+        SpringApplication application = new SpringApplication(ShareItApp.class);
+        application.setAdditionalProfiles(profiles);
+        try (ConfigurableApplicationContext context = application.run(args)) {
+            LoadTestSeeder seeder = new LoadTestSeeder(context.getBean(JdbcTemplate.class), config);
+            seeder.seed();
+            refreshBookingPointers(context);
+            context.getBean(ItemSearchIndex.class).rebuild();
+
+            int port = Integer.parseInt(context.getEnvironment().getProperty("local.server.port"));
+            LoadTestRunner runner = new LoadTestRunner(config, seeder, port);
+            runner.run(config.getWarmupRequests());
+            runner.stats.clear();
+            long elapsed = runner.run(config.getRequests());
+            log.info("Profiles {}: {} requests from {} clients in {} ms", String.join(",", profiles),
+                    config.getRequests(), config.getConcurrency(), elapsed / 1_000_000);
+            return runner.summary(elapsed);
+        }
+    }
+
+    /**
+     * Seeded items have no booking pointers yet, so without this every owner read in the measured run would take
+     * the stale-pointer path that the background sweep removes within minutes in production.
+     */
+    private static void refreshBookingPointers(ConfigurableApplicationContext context) {
+        long started = System.currentTimeMillis();
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        ItemBookingPointers pointers = context.getBean(ItemBookingPointers.class);
+        long stale = countItemsWithoutPointers(jdbcTemplate);
+        while (stale > 0) {
+            pointers.sweep();
+            long left = countItemsWithoutPointers(jdbcTemplate);
+            if (left >= stale) {
+                log.warn("{} items still have no booking pointers", left);
+                break;
+            }
+            stale = left;
+        }
+        log.info("Refreshed booking pointers in {} ms", System.currentTimeMillis() - started);
+    }
+
+    private static long countItemsWithoutPointers(JdbcTemplate jdbcTemplate) {
+        Long count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM items WHERE booking_pointers_refreshed_at IS NULL", Long.class);
+        return count == null ? 0 : count;
+    }
+
+    private long run(int requests) throws InterruptedException {
+        stats.put(SEARCH, new EndpointStats());
+        stats.put(OWNER_BOOKINGS, new EndpointStats());
+        stats.put(ITEM, new EndpointStats());
+        stats.put(CREATE_BOOKING, new EndpointStats());
+
+        AtomicInteger remaining = new AtomicInteger(requests);
+        ExecutorService executor = Executors.newFixedThreadPool(config.getConcurrency());
+        long started = System.nanoTime();
+        for (int i = 0; i < config.getConcurrency(); i++) {
+            executor.execute(() -> {
+                while (remaining.getAndDecrement() > 0) {
+                    sendOne();
+                }
+            });
+        }
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.HOURS);
+        return System.nanoTime() - started;
+    }
+
+    private void sendOne() {
+        int dice = ThreadLocalRandom.current().nextInt(100);
+        long userId = randomUser();
+        HttpRequest.Builder request;
+        String endpoint;
+        if (dice < 40) {
+            endpoint = SEARCH;
+            request = HttpRequest.newBuilder(URI.create(baseUrl + "/items/search?text=" + word())).GET();
+        } else if (dice < 60) {
+            endpoint = OWNER_BOOKINGS;
+            userId = 1 + ThreadLocalRandom.current().nextInt(config.getOwners());
+            BookingState state = BookingState.values()[ThreadLocalRandom.current().nextInt(6)];
+            request = HttpRequest.newBuilder(URI.create(baseUrl + "/bookings/owner?state=" + state)).GET();
+        } else if (dice < 90) {
+            endpoint = ITEM;
+            long itemId = randomItem();
+            if (ThreadLocalRandom.current().nextBoolean()) {
+                userId = seeder.ownerOf(itemId);
+            }
+            request = HttpRequest.newBuilder(URI.create(baseUrl + "/items/" + itemId)).GET();
+        } else {
+            endpoint = CREATE_BOOKING;
+            LocalDateTime start = LocalDateTime.now().plusDays(1 + ThreadLocalRandom.current().nextInt(365));
+            String body = "{\"itemId\":" + randomItem() + ",\"start\":\"" + start
+                    + "\",\"end\":\"" + start.plusHours(2) + "\"}";
+            request = HttpRequest.newBuilder(URI.create(baseUrl + "/bookings"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body));
+        }
+        request.header(USER_HEADER, String.valueOf(userId));
+
+        long started = System.nanoTime();
+        int status;
+        try {
+            status = httpClient.send(request.build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (Exception e) {
+            status = -1;
+        }
+        stats.get(endpoint).record(System.nanoTime() - started, status);
+    }
+
+    // Client threads draw from ThreadLocalRandom; the seeder's seeded Random is not thread-safe
+    private long randomUser() {
+        return 1 + ThreadLocalRandom.current().nextInt(config.getUsers());
+    }
+
+    private long randomItem() {
+        return 1 + ThreadLocalRandom.current().nextInt(config.getItems());
+    }
+
+    private static String word() {
+        return LoadTestSeeder.WORDS[ThreadLocalRandom.current().nextInt(LoadTestSeeder.WORDS.length)];
+    }
+
+    private Map<String, Object> summary(long elapsedNanos) {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("elapsedMs", elapsedNanos / 1_000_000);
+        EndpointStats all = new EndpointStats();
+        Map<String, Object> endpoints = new LinkedHashMap<>();
+        stats.forEach((endpoint, endpointStats) -> {
+            endpoints.put(endpoint, endpointStats.summary(elapsedNanos));
+            all.addAll(endpointStats);
+        });
+        summary.put("overall", all.summary(elapsedNanos));
+        summary.put("endpoints", endpoints);
+        return summary;
+    }
+
+    private static void writeReport(LoadTestConfig config, Map<String, Object> report) throws Exception {
+        File file = new File(config.getReport());
+        file.getParentFile().mkdirs();
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file, report);
+        log.info("Load test report written to {}", file.getAbsolutePath());
+    }
+}
@@ -0,0 +1,92 @@
+package ru.practicum.shareit.loadtest;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+@Slf4j
+@RequiredArgsConstructor
+class LoadTestSeeder {
+
+    static final String[] WORDS = {"drill", "ladder", "tent", "bike", "saw", "kayak", "camera", "tripod",
+        "projector", "speaker", "hammer", "grill", "scooter", "helmet", "lamp", "cable"};
+
+    private static final int BATCH_SIZE = 1000;
+    private static final String[] STATUSES = {"WAITING", "APPROVED", "REJECTED"};
+
+    private final JdbcTemplate jdbcTemplate;
+    private final LoadTestConfig config;
+    private final Random random = new Random(42);
+
+    void seed() {
+        long started = System.currentTimeMillis();
+        LocalDateTime now = LocalDateTime.now();
+        reset();
+
+        batch("INSERT INTO users (name, email) VALUES (?, ?)", config.getUsers(),
+                i -> new Object[] {"user" + i, "user" + i + "@example.com"});
+        batch("INSERT INTO items (name, description, available, owner_id) VALUES (?, ?, ?, ?)", config.getItems(),
+                i -> new Object[] {word() + " " + word() + " " + i, "A " + word() + " with a spare " + word(),
+                    random.nextInt(4) != 0, ownerOf(i)});
+        batch("INSERT INTO bookings (id, start_date, end_date, item_id, booker_id, status) VALUES (?, ?, ?, ?, ?, ?)",
+                config.getBookings(), i -> {
+                    LocalDateTime start = now.plusHours(random.nextInt(24 * 365) - 24 * 180);
+                    return new Object[] {i, Timestamp.valueOf(start), Timestamp.valueOf(start.plusHours(1 + random.nextInt(72))),
+                        randomItem(), randomUser(), STATUSES[random.nextInt(STATUSES.length)]};
+                });
+        jdbcTemplate.execute("ALTER SEQUENCE bookings_seq RESTART WITH " + (config.getBookings() + 1));
+        batch("INSERT INTO comments (text, item_id, author_id, created) VALUES (?, ?, ?, ?)", config.getComments(),
+                i -> new Object[] {"Worked fine, " + word(), randomItem(), randomUser(),
+                    Timestamp.valueOf(now.minusDays(random.nextInt(365)))});
+
+        log.info("Seeded {} users, {} items, {} bookings, {} comments in {} ms", config.getUsers(), config.getItems(),
+                config.getBookings(), config.getComments(), System.currentTimeMillis() - started);
+    }
+
+    private void reset() {
+        for (String table : new String[] {"comments", "bookings", "items", "item_requests", "users"}) {
+            jdbcTemplate.execute("DELETE FROM " + table);
+        }
+        // Ids are assumed to run from 1, as randomUser() and randomItem() pick them without a lookup
+        for (String table : new String[] {"comments", "items", "item_requests", "users"}) {
+            jdbcTemplate.execute("ALTER TABLE " + table + " ALTER COLUMN id RESTART WITH 1");
+        }
+    }
+
+    long ownerOf(long itemId) {
+        return 1 + itemId % config.getOwners();
+    }
+
+    private long randomUser() {
+        return 1 + random.nextInt(config.getUsers());
+    }
+
+    private long randomItem() {
+        return 1 + random.nextInt(config.getItems());
+    }
+
+    private String word() {
+        return WORDS[random.nextInt(WORDS.length)];
+    }
+
+    private void batch(String sql, int count, RowFactory rows) {
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        for (long i = 1; i <= count; i++) {
+            batch.add(rows.row(i));
+            if (batch.size() == BATCH_SIZE || i == count) {
+                jdbcTemplate.batchUpdate(sql, batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private interface RowFactory {
+        Object[] row(long index);
+    }
+}
@@ -4,9 +4,14 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.metrics.QueryBudget;
 
 import java.util.List;
 
@@ -16,49 +21,126 @@ import java.util.List;
 @RequiredArgsConstructor
 public class BookingController {
 
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final int DEFAULT_PAGE_LIMIT = 50;
+    private static final int MAX_PAGE_LIMIT = 500;
+
     private final BookingService bookingService;
+    private final BookingEventBroadcaster bookingEventBroadcaster;
 
     @PostMapping
+    @QueryBudget(4)
     public ResponseEntity<BookingDto> addBooking(@RequestHeader("X-Sharer-User-Id") Long userId,
                                                  @Valid @RequestBody BookingDto bookingDto) {
         log.info("Received bookingDto: " + bookingDto.toString());
         return new ResponseEntity<>(bookingService.addBooking(userId, bookingDto), HttpStatus.CREATED);
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<List<BookingBatchResultDto>> addBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                                   @RequestBody List<BookingDto> bookingDtos) {
+        log.info("Received batch of {} bookings from user {}", bookingDtos.size(), userId);
+        return ResponseEntity.ok(bookingService.addBookings(userId, bookingDtos));
+    }
+
+    // An approval also refreshes the item's booking pointers: lock, three lookups and the update
     @PatchMapping("/{bookingId}")
+    @QueryBudget(7)
     public ResponseEntity<BookingDto> confirmOrRejectBooking(@RequestHeader("X-Sharer-User-Id") Long userId,
                                                              @PathVariable Long bookingId,
                                                              @RequestParam Boolean approved) {
         return ResponseEntity.ok(bookingService.confirmOrRejectBooking(bookingId, userId, approved));
     }
 
+    // Sized for four decisions on two items: one versioned update per decision, one pointer update per approved item
+    @PatchMapping("/owner/bulk")
+    @QueryBudget(13)
+    public ResponseEntity<List<BookingDecisionResultDto>> decideBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                                         @RequestBody List<BookingDecisionDto> decisions) {
+        log.info("Received {} booking decisions from owner {}", decisions.size(), userId);
+        return ResponseEntity.ok(bookingService.decideBookings(userId, decisions));
+    }
+
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamBookingEvents(@RequestHeader("X-Sharer-User-Id") Long userId) {
+        return bookingEventBroadcaster.subscribe(userId);
+    }
+
     @GetMapping("/{bookingId}")
+    @QueryBudget(2)
     public ResponseEntity<BookingDto> getBookingById(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                                     @PathVariable Long bookingId) {
+                                                     @PathVariable Long bookingId,
+                                                     WebRequest request) {
+        String eTag = bookingService.getBookingETag(bookingId, userId);
+        if (eTag != null && request.checkNotModified(eTag)) {
+            return null;
+        }
         return ResponseEntity.ok(bookingService.getBookingById(bookingId, userId));
     }
 
     @GetMapping
+    @QueryBudget(2)
     public ResponseEntity<List<BookingDto>> getAllBookingsByUserId(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                                                   @RequestParam(defaultValue = "ALL") String state) {
+                                                                   @RequestParam(defaultValue = "ALL") String state,
+                                                                   @RequestParam(required = false) String cursor,
+                                                                   @RequestParam(required = false) Integer limit) {
         BookingState bookingState;
         try {
             bookingState = BookingState.valueOf(state.toUpperCase());
         } catch (IllegalArgumentException e) {
             return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
         }
-        return ResponseEntity.ok(bookingService.getAllBookingsByUserId(userId, bookingState));
+        if (cursor == null && limit == null) {
+            return ResponseEntity.ok(bookingService.getAllBookingsByUserId(userId, bookingState));
+        }
+        return toPageResponse(bookingService.getBookingsPageByUserId(userId, bookingState, cursor, pageLimit(limit)));
     }
 
     @GetMapping("/owner")
+    @QueryBudget(2)
     public ResponseEntity<List<BookingDto>> getAllBookingsByOwnerId(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                                                    @RequestParam(defaultValue = "ALL") String state) {
+                                                                    @RequestParam(defaultValue = "ALL") String state,
+                                                                    @RequestParam(required = false) String cursor,
+                                                                    @RequestParam(required = false) Integer limit) {
         BookingState bookingState;
         try {
             bookingState = BookingState.valueOf(state.toUpperCase());
         } catch (IllegalArgumentException e) {
             return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
         }
-        return ResponseEntity.ok(bookingService.getAllBookingsByOwnerId(userId, bookingState));
+        if (cursor == null && limit == null) {
+            return ResponseEntity.ok(bookingService.getAllBookingsByOwnerId(userId, bookingState));
+        }
+        return toPageResponse(bookingService.getBookingsPageByOwnerId(userId, bookingState, cursor, pageLimit(limit)));
+    }
+
+    @GetMapping("/summary")
+    @QueryBudget(2)
+    public ResponseEntity<BookingSummaryDto> getBookingSummaryByUserId(@RequestHeader("X-Sharer-User-Id") Long userId) {
+        return ResponseEntity.ok(bookingService.getBookingSummaryByUserId(userId));
+    }
+
+    @GetMapping("/owner/summary")
+    @QueryBudget(2)
+    public ResponseEntity<BookingSummaryDto> getBookingSummaryByOwnerId(@RequestHeader("X-Sharer-User-Id") Long userId) {
+        return ResponseEntity.ok(bookingService.getBookingSummaryByOwnerId(userId));
+    }
+
+    private static int pageLimit(Integer limit) {
+        if (limit == null) {
+            return DEFAULT_PAGE_LIMIT;
+        }
+        if (limit < 1 || limit > MAX_PAGE_LIMIT) {
+            throw new ValidationException("Limit must be between 1 and " + MAX_PAGE_LIMIT);
+        }
+        return limit;
+    }
+
+    private static ResponseEntity<List<BookingDto>> toPageResponse(BookingPage page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getBookings());
     }
 }
\ No newline at end of file
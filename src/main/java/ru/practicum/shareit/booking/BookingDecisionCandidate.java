@@ -0,0 +1,17 @@
+package ru.practicum.shareit.booking;
+
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+@Value
+public class BookingDecisionCandidate {
+    Long id;
+    Long version;
+    BookingStatus status;
+    Long itemId;
+    Long ownerId;
+    Long bookerId;
+    LocalDateTime start;
+    LocalDateTime end;
+}
@@ -0,0 +1,18 @@
+package ru.practicum.shareit.booking;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingDecisionDto {
+
+    @NotNull(message = "Booking ID cannot be null")
+    private Long bookingId;
+
+    @NotNull(message = "Decision cannot be null")
+    private Boolean approved;
+}
@@ -0,0 +1,27 @@
+package ru.practicum.shareit.booking;
+
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+@Value
+public class BookingEvent {
+    BookingEventType type;
+    Long bookingId;
+    Long itemId;
+    Long bookerId;
+    Long ownerId;
+    BookingStatus status;
+    LocalDateTime start;
+    LocalDateTime end;
+
+    public static BookingEvent expired(ExpiringBooking booking) {
+        return new BookingEvent(BookingEventType.EXPIRED, booking.getId(), booking.getItemId(), booking.getBookerId(),
+                booking.getOwnerId(), BookingStatus.EXPIRED, null, null);
+    }
+
+    public static BookingEvent of(BookingEventType type, Booking booking) {
+        return new BookingEvent(type, booking.getId(), booking.getItem().getId(), booking.getBooker().getId(),
+                booking.getItem().getOwner().getId(), booking.getStatus(), booking.getStart(), booking.getEnd());
+    }
+}
@@ -0,0 +1,190 @@
+package ru.practicum.shareit.booking;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.cluster.RemoteBookingEvent;
+import ru.practicum.shareit.user.UserService;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Streams booking events to their booker and owner over SSE. Each subscription buffers up to
+ * {@code buffer-size} events and is drained on a virtual thread, so a client whose socket blocks
+ * {@link SseEmitter#send} holds up only its own stream. Events committed on other nodes arrive as
+ * {@link RemoteBookingEvent}s.
+ */
+@Slf4j
+@Component
+public class BookingEventBroadcaster implements DisposableBean {
+
+    public enum Overflow {
+        DROP_OLDEST,
+        DROP_NEWEST,
+        DISCONNECT
+    }
+
+    private final Map<Long, Set<BookingEventSubscription>> subscriptions = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final UserService userService;
+    private final SimpleAsyncTaskExecutor delivery;
+    private final Duration timeout;
+    private final int bufferSize;
+    private final Overflow overflow;
+    private final Counter delivered;
+    private final Counter dropped;
+    private final Counter disconnected;
+
+    public BookingEventBroadcaster(@Value("${shareit.booking-stream.timeout:PT30M}") Duration timeout,
+                                   @Value("${shareit.booking-stream.buffer-size:32}") int bufferSize,
+                                   @Value("${shareit.booking-stream.overflow:DROP_OLDEST}") Overflow overflow,
+                                   UserService userService,
+                                   MeterRegistry meterRegistry) {
+        this.timeout = timeout;
+        this.bufferSize = bufferSize;
+        this.overflow = overflow;
+        this.userService = userService;
+
+        delivery = new SimpleAsyncTaskExecutor("booking-stream-");
+        delivery.setVirtualThreads(true);
+
+        Gauge.builder("shareit.booking.stream.subscribers", subscriberCount, AtomicInteger::get)
+                .register(meterRegistry);
+        delivered = Counter.builder("shareit.booking.stream.events").tag("outcome", "delivered").register(meterRegistry);
+        dropped = Counter.builder("shareit.booking.stream.events").tag("outcome", "dropped").register(meterRegistry);
+        disconnected = Counter.builder("shareit.booking.stream.disconnects").tag("reason", "overflow")
+                .register(meterRegistry);
+    }
+
+    public SseEmitter subscribe(Long userId) {
+        userService.getUserById(userId);
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        BookingEventSubscription subscription = new BookingEventSubscription(userId, emitter, bufferSize);
+        emitter.onCompletion(() -> remove(subscription));
+        emitter.onTimeout(() -> remove(subscription));
+        emitter.onError(e -> remove(subscription));
+        subscriptions.compute(userId, (id, userSubscriptions) -> {
+            Set<BookingEventSubscription> updated = userSubscriptions != null
+                    ? userSubscriptions
+                    : ConcurrentHashMap.newKeySet();
+            updated.add(subscription);
+            return updated;
+        });
+        subscriberCount.incrementAndGet();
+        log.debug("User {} subscribed to booking events", userId);
+        return emitter;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onBookingEvent(BookingEvent event) {
+        deliver(event);
+    }
+
+    @EventListener
+    public void onRemoteBookingEvent(RemoteBookingEvent event) {
+        deliver(event.getEvent());
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking-stream.heartbeat:PT30S}")
+    public void heartbeat() {
+        subscriptions.values().forEach(userSubscriptions -> userSubscriptions.forEach(subscription -> {
+            if (subscription.tryStartDrain()) {
+                delivery.execute(() -> {
+                    try {
+                        subscription.getEmitter().send(SseEmitter.event().comment("heartbeat"));
+                    } catch (IOException | IllegalStateException e) {
+                        close(subscription, e);
+                        return;
+                    }
+                    drain(subscription);
+                });
+            }
+        }));
+    }
+
+    private void deliver(BookingEvent event) {
+        publish(event.getBookerId(), event);
+        if (!Objects.equals(event.getOwnerId(), event.getBookerId())) {
+            publish(event.getOwnerId(), event);
+        }
+    }
+
+    private void publish(Long userId, BookingEvent event) {
+        Set<BookingEventSubscription> userSubscriptions = subscriptions.get(userId);
+        if (userSubscriptions == null) {
+            return;
+        }
+        for (BookingEventSubscription subscription : userSubscriptions) {
+            switch (subscription.offer(event, overflow)) {
+                case SCHEDULE:
+                    delivery.execute(() -> drain(subscription));
+                    break;
+                case DROPPED:
+                    dropped.increment();
+                    break;
+                case OVERFLOW:
+                    disconnected.increment();
+                    log.debug("Disconnecting booking event subscriber {}, buffer of {} is full", userId, bufferSize);
+                    remove(subscription);
+                    subscription.getEmitter().complete();
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+
+    private void drain(BookingEventSubscription subscription) {
+        BookingEvent event;
+        while ((event = subscription.poll()) != null) {
+            try {
+                subscription.getEmitter().send(SseEmitter.event()
+                        .name(event.getType().name().toLowerCase())
+                        .data(event, MediaType.APPLICATION_JSON));
+                delivered.increment();
+            } catch (IOException | IllegalStateException e) {
+                close(subscription, e);
+                return;
+            }
+        }
+    }
+
+    private void close(BookingEventSubscription subscription, Exception cause) {
+        log.debug("Booking event subscriber {} went away: {}", subscription.getUserId(), cause.getMessage());
+        remove(subscription);
+        subscription.getEmitter().completeWithError(cause);
+    }
+
+    private void remove(BookingEventSubscription subscription) {
+        subscriptions.computeIfPresent(subscription.getUserId(), (id, userSubscriptions) -> {
+            if (userSubscriptions.remove(subscription)) {
+                subscriberCount.decrementAndGet();
+            }
+            return userSubscriptions.isEmpty() ? null : userSubscriptions;
+        });
+    }
+
+    @Override
+    public void destroy() {
+        subscriptions.values().forEach(userSubscriptions ->
+                userSubscriptions.forEach(subscription -> subscription.getEmitter().complete()));
+        delivery.close();
+    }
+}
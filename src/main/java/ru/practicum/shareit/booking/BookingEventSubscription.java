@@ -0,0 +1,70 @@
+package ru.practicum.shareit.booking;
+
+import lombok.Getter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+class BookingEventSubscription {
+
+    enum Offer {
+        SCHEDULE,
+        QUEUED,
+        DROPPED,
+        OVERFLOW
+    }
+
+    @Getter
+    private final Long userId;
+    @Getter
+    private final SseEmitter emitter;
+    private final int capacity;
+    private final Deque<BookingEvent> buffer = new ArrayDeque<>(4);
+    private boolean draining;
+
+    BookingEventSubscription(Long userId, SseEmitter emitter, int capacity) {
+        this.userId = userId;
+        this.emitter = emitter;
+        this.capacity = capacity;
+    }
+
+    synchronized Offer offer(BookingEvent event, BookingEventBroadcaster.Overflow overflow) {
+        Offer result = Offer.QUEUED;
+        if (buffer.size() >= capacity) {
+            switch (overflow) {
+                case DROP_OLDEST:
+                    buffer.pollFirst();
+                    result = Offer.DROPPED;
+                    break;
+                case DROP_NEWEST:
+                    return Offer.DROPPED;
+                default:
+                    buffer.clear();
+                    return Offer.OVERFLOW;
+            }
+        }
+        buffer.addLast(event);
+        if (!draining) {
+            draining = true;
+            return Offer.SCHEDULE;
+        }
+        return result;
+    }
+
+    synchronized boolean tryStartDrain() {
+        if (draining) {
+            return false;
+        }
+        draining = true;
+        return true;
+    }
+
+    synchronized BookingEvent poll() {
+        BookingEvent event = buffer.pollFirst();
+        if (event == null) {
+            draining = false;
+        }
+        return event;
+    }
+}
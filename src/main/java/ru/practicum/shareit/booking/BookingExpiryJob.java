@@ -0,0 +1,90 @@
+package ru.practicum.shareit.booking;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.booking-expiry.enabled", havingValue = "true", matchIfMissing = true)
+public class BookingExpiryJob {
+
+    private final BookingRepository bookingRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final int maxChunksPerRun;
+    private final Timer runDuration;
+    private final DistributionSummary rowsPerRun;
+    private final Counter expiredTotal;
+
+    public BookingExpiryJob(BookingRepository bookingRepository,
+                            ApplicationEventPublisher eventPublisher,
+                            PlatformTransactionManager transactionManager,
+                            MeterRegistry meterRegistry,
+                            @Value("${shareit.booking-expiry.chunk-size:500}") int chunkSize,
+                            @Value("${shareit.booking-expiry.max-chunks-per-run:100}") int maxChunksPerRun) {
+        this.bookingRepository = bookingRepository;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.maxChunksPerRun = maxChunksPerRun;
+        this.runDuration = Timer.builder("shareit.booking.expiry.duration").register(meterRegistry);
+        this.rowsPerRun = DistributionSummary.builder("shareit.booking.expiry.rows").register(meterRegistry);
+        this.expiredTotal = Counter.builder("shareit.booking.expiry.expired").register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking-expiry.interval:PT1M}",
+            initialDelayString = "${shareit.booking-expiry.initial-delay:PT1M}")
+    public void expireStaleBookings() {
+        Timer.Sample sample = Timer.start();
+        LocalDateTime now = LocalDateTime.now();
+        int total = 0;
+        try {
+            for (int chunk = 0; chunk < maxChunksPerRun; chunk++) {
+                List<ExpiringBooking> expired = transactionTemplate.execute(status -> expireChunk(now));
+                if (expired == null || expired.isEmpty()) {
+                    break;
+                }
+                total += expired.size();
+                if (expired.size() < chunkSize) {
+                    break;
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("Booking expiry run stopped after {} bookings: {}", total, e.getMessage());
+        } finally {
+            sample.stop(runDuration);
+            rowsPerRun.record(total);
+            expiredTotal.increment(total);
+        }
+        if (total > 0) {
+            log.info("Expired {} WAITING bookings that started before {}", total, now);
+        }
+    }
+
+    private List<ExpiringBooking> expireChunk(LocalDateTime now) {
+        List<ExpiringBooking> expired = bookingRepository.lockWaitingBookingsStartedBefore(now, chunkSize);
+        if (expired.isEmpty()) {
+            return expired;
+        }
+        bookingRepository.markExpired(expired.stream()
+                .map(ExpiringBooking::getId)
+                .collect(Collectors.toList()));
+        expired.forEach(booking -> eventPublisher.publishEvent(BookingEvent.expired(booking)));
+        return expired;
+    }
+}
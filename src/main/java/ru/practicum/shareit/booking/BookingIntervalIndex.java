@@ -0,0 +1,286 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.cluster.InvalidationEvent;
+import ru.practicum.shareit.cluster.InvalidationRegion;
+import ru.practicum.shareit.item.AvailabilityWindowDto;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Node-local LRU of per-item booking timelines. Committed booking changes are applied from {@link BookingEvent}s;
+ * changes made on other nodes arrive as {@link InvalidationRegion#ITEM_BOOKINGS} invalidations and evict the
+ * timeline, which is then reloaded on the next read.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BookingIntervalIndex {
+
+    private static final Set<BookingStatus> BLOCKING_STATUSES = EnumSet.of(BookingStatus.WAITING, BookingStatus.APPROVED);
+
+    private final BookingRepository bookingRepository;
+
+    @Value("${shareit.availability.max-cached-items:10000}")
+    private int maxCachedItems;
+
+    private final Map<Long, ItemTimeline> timelines = Collections.synchronizedMap(
+            new LinkedHashMap<Long, ItemTimeline>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Long, ItemTimeline> eldest) {
+                    return size() > maxCachedItems;
+                }
+            });
+
+    public boolean isCached(Long itemId) {
+        return timelines.containsKey(itemId);
+    }
+
+    public List<AvailabilityWindowDto> freeWindows(Long itemId, LocalDateTime from, LocalDateTime to) {
+        // The empty timeline is published before it is loaded, so changes committed meanwhile queue behind the load
+        ItemTimeline timeline = timelines.computeIfAbsent(itemId, id -> new ItemTimeline());
+        timeline.loadIfNeeded(itemId);
+        return timeline.freeWindows(from, to);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onBookingEvent(BookingEvent event) {
+        ItemTimeline timeline = timelines.get(event.getItemId());
+        if (timeline == null) {
+            return;
+        }
+        if (BLOCKING_STATUSES.contains(event.getStatus())) {
+            timeline.put(event.getBookingId(), event.getStart(), event.getEnd());
+        } else {
+            timeline.remove(event.getBookingId());
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onInvalidation(InvalidationEvent event) {
+        if (event.getRegion() != InvalidationRegion.ITEM_BOOKINGS) {
+            return;
+        }
+        if (event.isRegionWide()) {
+            clear();
+        } else {
+            evict(event.getKey());
+        }
+    }
+
+    public void evict(Long itemId) {
+        timelines.remove(itemId);
+    }
+
+    public void clear() {
+        timelines.clear();
+    }
+
+    private class ItemTimeline {
+        private final IntervalTree intervals = new IntervalTree();
+        // Bookings that reached a terminal status; a late event for an earlier state must not bring them back
+        private final Set<Long> finished = new HashSet<>();
+        private boolean loaded;
+
+        synchronized void loadIfNeeded(Long itemId) {
+            if (loaded) {
+                return;
+            }
+            log.debug("Loading booking timeline for item {}", itemId);
+            for (Booking booking : bookingRepository.findByItemIdAndStatusIn(itemId, BLOCKING_STATUSES)) {
+                put(booking.getId(), booking.getStart(), booking.getEnd());
+            }
+            loaded = true;
+        }
+
+        synchronized void put(Long bookingId, LocalDateTime start, LocalDateTime end) {
+            if (!finished.contains(bookingId)) {
+                intervals.put(bookingId, start, end);
+            }
+        }
+
+        synchronized void remove(Long bookingId) {
+            finished.add(bookingId);
+            intervals.remove(bookingId);
+        }
+
+        synchronized List<AvailabilityWindowDto> freeWindows(LocalDateTime from, LocalDateTime to) {
+            List<AvailabilityWindowDto> windows = new ArrayList<>();
+            LocalDateTime cursor = from;
+            for (IntervalTree.Node interval : intervals.overlapping(from, to)) {
+                if (!interval.end.isAfter(cursor)) {
+                    continue;
+                }
+                if (interval.start.isAfter(cursor)) {
+                    windows.add(new AvailabilityWindowDto(cursor, interval.start));
+                }
+                cursor = interval.end;
+                if (!cursor.isBefore(to)) {
+                    return windows;
+                }
+            }
+            windows.add(new AvailabilityWindowDto(cursor, to));
+            return windows;
+        }
+    }
+
+    /**
+     * Treap ordered by (start, booking id) where every node also keeps the latest end in its subtree, so an overlap
+     * query skips any subtree that ends before the requested range however long its bookings are.
+     */
+    static class IntervalTree {
+        private final Map<Long, Node> byBookingId = new HashMap<>();
+        private Node root;
+
+        void put(Long bookingId, LocalDateTime start, LocalDateTime end) {
+            remove(bookingId);
+            Node node = new Node(bookingId, start, end, ThreadLocalRandom.current().nextInt());
+            byBookingId.put(bookingId, node);
+            root = insert(root, node);
+        }
+
+        void remove(Long bookingId) {
+            Node node = byBookingId.remove(bookingId);
+            if (node != null) {
+                root = delete(root, node);
+            }
+        }
+
+        List<Node> overlapping(LocalDateTime from, LocalDateTime to) {
+            List<Node> result = new ArrayList<>();
+            collect(root, from, to, result);
+            return result;
+        }
+
+        private static void collect(Node node, LocalDateTime from, LocalDateTime to, List<Node> result) {
+            if (node == null || !node.maxEnd.isAfter(from)) {
+                return;
+            }
+            collect(node.left, from, to, result);
+            if (!node.start.isBefore(to)) {
+                return;
+            }
+            if (node.end.isAfter(from)) {
+                result.add(node);
+            }
+            collect(node.right, from, to, result);
+        }
+
+        private static Node insert(Node root, Node node) {
+            if (root == null) {
+                return node;
+            }
+            if (node.priority > root.priority) {
+                Node[] halves = split(root, node);
+                node.left = halves[0];
+                node.right = halves[1];
+                node.update();
+                return node;
+            }
+            if (node.precedes(root)) {
+                root.left = insert(root.left, node);
+            } else {
+                root.right = insert(root.right, node);
+            }
+            root.update();
+            return root;
+        }
+
+        private static Node delete(Node root, Node node) {
+            if (root == null) {
+                return null;
+            }
+            if (root == node) {
+                return merge(root.left, root.right);
+            }
+            if (node.precedes(root)) {
+                root.left = delete(root.left, node);
+            } else {
+                root.right = delete(root.right, node);
+            }
+            root.update();
+            return root;
+        }
+
+        private static Node[] split(Node root, Node key) {
+            if (root == null) {
+                return new Node[2];
+            }
+            if (root.precedes(key)) {
+                Node[] halves = split(root.right, key);
+                root.right = halves[0];
+                root.update();
+                return new Node[] {root, halves[1]};
+            }
+            Node[] halves = split(root.left, key);
+            root.left = halves[1];
+            root.update();
+            return new Node[] {halves[0], root};
+        }
+
+        private static Node merge(Node left, Node right) {
+            if (left == null) {
+                return right;
+            }
+            if (right == null) {
+                return left;
+            }
+            if (left.priority > right.priority) {
+                left.right = merge(left.right, right);
+                left.update();
+                return left;
+            }
+            right.left = merge(left, right.left);
+            right.update();
+            return right;
+        }
+
+        static class Node {
+            final Long bookingId;
+            final LocalDateTime start;
+            final LocalDateTime end;
+            private final int priority;
+            private Node left;
+            private Node right;
+            private LocalDateTime maxEnd;
+
+            Node(Long bookingId, LocalDateTime start, LocalDateTime end, int priority) {
+                this.bookingId = bookingId;
+                this.start = start;
+                this.end = end;
+                this.priority = priority;
+                this.maxEnd = end;
+            }
+
+            boolean precedes(Node other) {
+                int byStart = start.compareTo(other.start);
+                return byStart < 0 || byStart == 0 && bookingId < other.bookingId;
+            }
+
+            void update() {
+                maxEnd = end;
+                if (left != null && left.maxEnd.isAfter(maxEnd)) {
+                    maxEnd = left.maxEnd;
+                }
+                if (right != null && right.maxEnd.isAfter(maxEnd)) {
+                    maxEnd = right.maxEnd;
+                }
+            }
+        }
+    }
+}
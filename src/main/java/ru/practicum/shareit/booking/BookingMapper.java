@@ -1,6 +1,7 @@
 package ru.practicum.shareit.booking;
 
 import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.BookingPointer;
 import ru.practicum.shareit.item.Item;
 import ru.practicum.shareit.item.ItemDto;
 import ru.practicum.shareit.user.User;
@@ -57,4 +58,37 @@ public class BookingMapper {
         return dto;
     }
 
-}
\ No newline at end of file
+    public BookingDto toBookingDto(BookingView view) {
+        ItemDto itemDto = new ItemDto();
+        itemDto.setId(view.getItemId());
+        itemDto.setName(view.getItemName());
+        itemDto.setDescription(view.getItemDescription());
+        itemDto.setAvailable(view.getItemAvailable());
+        itemDto.setRequestId(view.getItemRequestId());
+
+        BookingDto bookingDto = new BookingDto();
+        bookingDto.setId(view.getId());
+        bookingDto.setItemId(view.getItemId());
+        bookingDto.setBookerId(view.getBookerId());
+        bookingDto.setStart(view.getStart());
+        bookingDto.setEnd(view.getEnd());
+        bookingDto.setStatus(view.getStatus().toString());
+        bookingDto.setItem(itemDto);
+        bookingDto.setBooker(new UserDto(view.getBookerId(), view.getBookerName(), view.getBookerEmail()));
+        return bookingDto;
+    }
+
+    public BookingDto toBookingShortDto(BookingPointer pointer, Long itemId) {
+        if (pointer == null) {
+            return null;
+        }
+        BookingDto dto = new BookingDto();
+        dto.setId(pointer.getBookingId());
+        dto.setItemId(itemId);
+        dto.setBookerId(pointer.getBookerId());
+        dto.setStart(pointer.getStart());
+        dto.setEnd(pointer.getEnd());
+        dto.setStatus(BookingStatus.APPROVED.toString());
+        return dto;
+    }
+}
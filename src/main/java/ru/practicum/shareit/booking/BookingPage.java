@@ -0,0 +1,13 @@
+package ru.practicum.shareit.booking;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class BookingPage {
+    private List<BookingDto> bookings;
+    private String nextCursor;
+}
@@ -1,38 +1,47 @@
 package ru.practicum.shareit.booking;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.data.domain.Sort;
+import ru.practicum.shareit.item.BookingPointerDeadline;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.time.LocalDateTime;
 
 public interface BookingRepository extends JpaRepository<Booking, Long> {
 
-    List<Booking> findByBookerId(Long bookerId, Sort sort);
-
-    List<Booking> findByItemOwnerId(Long ownerId, Sort sort);
-
-    List<Booking> findByBookerIdAndStartBeforeAndEndAfter(Long bookerId, LocalDateTime now, LocalDateTime now1, Sort sort);
-
-    List<Booking> findByBookerIdAndEndBefore(Long bookerId, LocalDateTime now, Sort sort);
-
-    List<Booking> findByBookerIdAndStartAfter(Long bookerId, LocalDateTime now, Sort sort);
-
-    List<Booking> findByBookerIdAndStatus(Long bookerId, BookingStatus status, Sort sort);
+    String SELECT_VIEW = "SELECT new ru.practicum.shareit.booking.BookingView(b.id, b.start, b.end, b.status, "
+            + "i.id, i.name, i.description, i.available, i.requestId, u.id, u.name, u.email) "
+            + "FROM Booking b JOIN b.item i JOIN b.booker u ";
+    String ORDER_VIEW = " ORDER BY b.start DESC";
+    String KEYSET_VIEW = " AND b.start <= :cursorStart AND (b.start < :cursorStart OR b.id < :cursorId)"
+            + " ORDER BY b.start DESC, b.id DESC";
+
+    // CASE rather than FILTER: Hibernate renders parameters inside FILTER as an unresolved timestamp($p) cast
+    String SELECT_SUMMARY = "SELECT new ru.practicum.shareit.booking.BookingSummaryDto("
+            + "COUNT(CASE WHEN b.start < :now AND b.end > :now THEN 1 END), "
+            + "COUNT(CASE WHEN b.end < :now THEN 1 END), "
+            + "COUNT(CASE WHEN b.start > :now THEN 1 END), "
+            + "COUNT(CASE WHEN b.status = ru.practicum.shareit.booking.BookingStatus.WAITING THEN 1 END), "
+            + "COUNT(CASE WHEN b.status = ru.practicum.shareit.booking.BookingStatus.REJECTED THEN 1 END), "
+            + "COUNT(CASE WHEN b.status = ru.practicum.shareit.booking.BookingStatus.EXPIRED THEN 1 END), "
+            + "COUNT(b)) FROM Booking b ";
 
     @Query("SELECT b FROM Booking b JOIN FETCH b.item JOIN FETCH b.booker WHERE b.id = :bookingId")
     Optional<Booking> findById(@Param("bookingId") Long bookingId);
 
-    List<Booking> findByItemOwnerIdAndStartBeforeAndEndAfter(Long ownerId, LocalDateTime now, LocalDateTime now1, Sort sort);
-
-    List<Booking> findByItemOwnerIdAndEndBefore(Long ownerId, LocalDateTime now, Sort sort);
+    // Leaves item and booker to the persistence context, so the second-level cache can serve them
+    @Query("SELECT b FROM Booking b WHERE b.id = :bookingId")
+    Optional<Booking> findWithoutJoinsById(@Param("bookingId") Long bookingId);
 
-    List<Booking> findByItemOwnerIdAndStartAfter(Long ownerId, LocalDateTime now, Sort sort);
-
-    List<Booking> findByItemOwnerIdAndStatus(Long ownerId, BookingStatus status, Sort sort);
+    @Query("SELECT b.version AS version, i.version AS itemVersion, u.version AS bookerVersion, u.id AS bookerId, "
+            + "i.owner.id AS ownerId FROM Booking b JOIN b.item i JOIN b.booker u WHERE b.id = :bookingId")
+    Optional<BookingVersionView> findVersionById(@Param("bookingId") Long bookingId);
 
     Optional<Booking> findFirstByItemIdAndStatusAndEndBeforeOrderByEndDesc(Long itemId, BookingStatus status, LocalDateTime end);
 
@@ -42,9 +51,146 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
 
     List<Booking> findByItemIdAndStatus(Long itemId, BookingStatus approved, Sort sort);
 
+    List<Booking> findByItemIdAndStatusIn(Long itemId, Collection<BookingStatus> statuses);
+
+    @Query(value = "SELECT t.id, t.start_date, t.end_date, t.item_id, t.booker_id, t.status, t.version FROM ("
+            + "SELECT b.*, ROW_NUMBER() OVER (PARTITION BY b.item_id ORDER BY b.end_date DESC) AS rn FROM bookings b "
+            + "WHERE b.item_id IN (:itemIds) AND b.status = 'APPROVED' AND b.end_date < :now) t WHERE t.rn = 1",
+            nativeQuery = true)
+    List<Booking> findLastApprovedBookingsForItems(@Param("itemIds") List<Long> itemIds, @Param("now") LocalDateTime now);
+
+    @Query(value = "SELECT t.id, t.start_date, t.end_date, t.item_id, t.booker_id, t.status, t.version FROM ("
+            + "SELECT b.*, ROW_NUMBER() OVER (PARTITION BY b.item_id ORDER BY b.start_date ASC) AS rn FROM bookings b "
+            + "WHERE b.item_id IN (:itemIds) AND b.status = 'APPROVED' AND b.start_date > :now) t WHERE t.rn = 1",
+            nativeQuery = true)
+    List<Booking> findNextApprovedBookingsForItems(@Param("itemIds") List<Long> itemIds, @Param("now") LocalDateTime now);
+
+    @Query("SELECT b.item.id AS id, MIN(b.end) AS validUntil FROM Booking b WHERE b.item.id IN :itemIds "
+            + "AND b.status = ru.practicum.shareit.booking.BookingStatus.APPROVED AND b.end > :now GROUP BY b.item.id")
+    List<BookingPointerDeadline> findEarliestApprovedEndsForItems(@Param("itemIds") Collection<Long> itemIds,
+                                                                  @Param("now") LocalDateTime now);
+
+    @Query(value = "SELECT b.id AS \"id\", b.item_id AS \"itemId\", b.booker_id AS \"bookerId\", "
+            + "i.owner_id AS \"ownerId\" FROM bookings b JOIN items i ON i.id = b.item_id "
+            + "WHERE b.status = 'WAITING' AND b.start_date < :now ORDER BY b.start_date "
+            + "LIMIT :limit FOR UPDATE OF b SKIP LOCKED", nativeQuery = true)
+    List<ExpiringBooking> lockWaitingBookingsStartedBefore(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    @Modifying
+    @Query("UPDATE Booking b SET b.status = ru.practicum.shareit.booking.BookingStatus.EXPIRED, "
+            + "b.version = b.version + 1 WHERE b.id IN :ids AND b.status = ru.practicum.shareit.booking.BookingStatus.WAITING")
+    int markExpired(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT new ru.practicum.shareit.booking.BookingDecisionCandidate(b.id, b.version, b.status, i.id, "
+            + "i.owner.id, b.booker.id, b.start, b.end) FROM Booking b JOIN b.item i WHERE b.id IN :ids")
+    List<BookingDecisionCandidate> findDecisionCandidates(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT new ru.practicum.shareit.booking.BookingDecisionCandidate(b.id, b.version, b.status, i.id, "
+            + "i.owner.id, b.booker.id, b.start, b.end) FROM Booking b JOIN b.item i WHERE i.id IN :itemIds "
+            + "AND b.status = ru.practicum.shareit.booking.BookingStatus.APPROVED AND b.start < :to AND b.end > :from")
+    List<BookingDecisionCandidate> findApprovedBetween(@Param("itemIds") Collection<Long> itemIds,
+                                                       @Param("from") LocalDateTime from,
+                                                       @Param("to") LocalDateTime to);
+
+    // Matches only while the booking is still WAITING at the version the decision was made on
+    @Modifying
+    @Query("UPDATE Booking b SET b.status = :status, b.version = b.version + 1 WHERE b.id = :id "
+            + "AND b.version = :version AND b.status = ru.practicum.shareit.booking.BookingStatus.WAITING")
+    int applyDecision(@Param("id") Long id, @Param("version") Long version, @Param("status") BookingStatus status);
+
     @Query("SELECT b FROM Booking b WHERE b.item.id IN :itemIds AND b.status = :status")
     List<Booking> findBookingsForItemsInList(
             @Param("itemIds") List<Long> itemIds,
             @Param("status") BookingStatus status
     );
-}
\ No newline at end of file
+
+    @Query(SELECT_VIEW + "WHERE u.id = :bookerId" + ORDER_VIEW)
+    List<BookingView> findViewsByBookerId(@Param("bookerId") Long bookerId);
+
+    @Query(SELECT_VIEW + "WHERE u.id = :bookerId AND b.start < :now AND b.end > :now" + ORDER_VIEW)
+    List<BookingView> findCurrentViewsByBookerId(@Param("bookerId") Long bookerId, @Param("now") LocalDateTime now);
+
+    @Query(SELECT_VIEW + "WHERE u.id = :bookerId AND b.end < :now" + ORDER_VIEW)
+    List<BookingView> findPastViewsByBookerId(@Param("bookerId") Long bookerId, @Param("now") LocalDateTime now);
+
+    @Query(SELECT_VIEW + "WHERE u.id = :bookerId AND b.start > :now" + ORDER_VIEW)
+    List<BookingView> findFutureViewsByBookerId(@Param("bookerId") Long bookerId, @Param("now") LocalDateTime now);
+
+    @Query(SELECT_VIEW + "WHERE u.id = :bookerId AND b.status = :status" + ORDER_VIEW)
+    List<BookingView> findViewsByBookerIdAndStatus(@Param("bookerId") Long bookerId,
+                                                   @Param("status") BookingStatus status);
+
+    @Query(SELECT_VIEW + "WHERE u.id = :bookerId" + KEYSET_VIEW)
+    List<BookingView> findViewPageByBookerId(@Param("bookerId") Long bookerId,
+                                             @Param("cursorStart") LocalDateTime cursorStart,
+                                             @Param("cursorId") Long cursorId, Limit limit);
+
+    @Query(SELECT_VIEW + "WHERE u.id = :bookerId AND b.start < :now AND b.end > :now" + KEYSET_VIEW)
+    List<BookingView> findCurrentViewPageByBookerId(@Param("bookerId") Long bookerId, @Param("now") LocalDateTime now,
+                                                    @Param("cursorStart") LocalDateTime cursorStart,
+                                                    @Param("cursorId") Long cursorId, Limit limit);
+
+    @Query(SELECT_VIEW + "WHERE u.id = :bookerId AND b.end < :now" + KEYSET_VIEW)
+    List<BookingView> findPastViewPageByBookerId(@Param("bookerId") Long bookerId, @Param("now") LocalDateTime now,
+                                                 @Param("cursorStart") LocalDateTime cursorStart,
+                                                 @Param("cursorId") Long cursorId, Limit limit);
+
+    @Query(SELECT_VIEW + "WHERE u.id = :bookerId AND b.start > :now" + KEYSET_VIEW)
+    List<BookingView> findFutureViewPageByBookerId(@Param("bookerId") Long bookerId, @Param("now") LocalDateTime now,
+                                                   @Param("cursorStart") LocalDateTime cursorStart,
+                                                   @Param("cursorId") Long cursorId, Limit limit);
+
+    @Query(SELECT_VIEW + "WHERE u.id = :bookerId AND b.status = :status" + KEYSET_VIEW)
+    List<BookingView> findViewPageByBookerIdAndStatus(@Param("bookerId") Long bookerId,
+                                                      @Param("status") BookingStatus status,
+                                                      @Param("cursorStart") LocalDateTime cursorStart,
+                                                      @Param("cursorId") Long cursorId, Limit limit);
+
+    @Query(SELECT_SUMMARY + "WHERE b.booker.id = :bookerId")
+    BookingSummaryDto summarizeByBookerId(@Param("bookerId") Long bookerId, @Param("now") LocalDateTime now);
+
+    @Query(SELECT_SUMMARY + "JOIN b.item i WHERE i.owner.id = :ownerId")
+    BookingSummaryDto summarizeByItemOwnerId(@Param("ownerId") Long ownerId, @Param("now") LocalDateTime now);
+
+    @Query(SELECT_VIEW + "WHERE i.owner.id = :ownerId" + ORDER_VIEW)
+    List<BookingView> findViewsByItemOwnerId(@Param("ownerId") Long ownerId);
+
+    @Query(SELECT_VIEW + "WHERE i.owner.id = :ownerId AND b.start < :now AND b.end > :now" + ORDER_VIEW)
+    List<BookingView> findCurrentViewsByItemOwnerId(@Param("ownerId") Long ownerId, @Param("now") LocalDateTime now);
+
+    @Query(SELECT_VIEW + "WHERE i.owner.id = :ownerId AND b.end < :now" + ORDER_VIEW)
+    List<BookingView> findPastViewsByItemOwnerId(@Param("ownerId") Long ownerId, @Param("now") LocalDateTime now);
+
+    @Query(SELECT_VIEW + "WHERE i.owner.id = :ownerId AND b.start > :now" + ORDER_VIEW)
+    List<BookingView> findFutureViewsByItemOwnerId(@Param("ownerId") Long ownerId, @Param("now") LocalDateTime now);
+
+    @Query(SELECT_VIEW + "WHERE i.owner.id = :ownerId AND b.status = :status" + ORDER_VIEW)
+    List<BookingView> findViewsByItemOwnerIdAndStatus(@Param("ownerId") Long ownerId,
+                                                      @Param("status") BookingStatus status);
+
+    @Query(SELECT_VIEW + "WHERE i.owner.id = :ownerId" + KEYSET_VIEW)
+    List<BookingView> findViewPageByItemOwnerId(@Param("ownerId") Long ownerId,
+                                                @Param("cursorStart") LocalDateTime cursorStart,
+                                                @Param("cursorId") Long cursorId, Limit limit);
+
+    @Query(SELECT_VIEW + "WHERE i.owner.id = :ownerId AND b.start < :now AND b.end > :now" + KEYSET_VIEW)
+    List<BookingView> findCurrentViewPageByItemOwnerId(@Param("ownerId") Long ownerId, @Param("now") LocalDateTime now,
+                                                       @Param("cursorStart") LocalDateTime cursorStart,
+                                                       @Param("cursorId") Long cursorId, Limit limit);
+
+    @Query(SELECT_VIEW + "WHERE i.owner.id = :ownerId AND b.end < :now" + KEYSET_VIEW)
+    List<BookingView> findPastViewPageByItemOwnerId(@Param("ownerId") Long ownerId, @Param("now") LocalDateTime now,
+                                                    @Param("cursorStart") LocalDateTime cursorStart,
+                                                    @Param("cursorId") Long cursorId, Limit limit);
+
+    @Query(SELECT_VIEW + "WHERE i.owner.id = :ownerId AND b.start > :now" + KEYSET_VIEW)
+    List<BookingView> findFutureViewPageByItemOwnerId(@Param("ownerId") Long ownerId, @Param("now") LocalDateTime now,
+                                                      @Param("cursorStart") LocalDateTime cursorStart,
+                                                      @Param("cursorId") Long cursorId, Limit limit);
+
+    @Query(SELECT_VIEW + "WHERE i.owner.id = :ownerId AND b.status = :status" + KEYSET_VIEW)
+    List<BookingView> findViewPageByItemOwnerIdAndStatus(@Param("ownerId") Long ownerId,
+                                                         @Param("status") BookingStatus status,
+                                                         @Param("cursorStart") LocalDateTime cursorStart,
+                                                         @Param("cursorId") Long cursorId, Limit limit);
+}
@@ -1,7 +1,9 @@
 package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Sort;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.service.BookingService;
@@ -14,9 +16,17 @@ import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserDto;
 import ru.practicum.shareit.user.UserMapper;
 import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.UserService;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -24,12 +34,19 @@ import java.util.stream.Collectors;
 @Transactional
 public class BookingServiceImpl implements BookingService {
 
+    private static final int MAX_BATCH_SIZE = 5000;
+
     private final BookingRepository bookingRepository;
     private final UserRepository userRepository;
+    private final UserService userService;
     private final ItemRepository itemRepository;
     private final BookingMapper bookingMapper;
     private final ItemMapper itemMapper;
     private final UserMapper userMapper;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${spring.jpa.properties.hibernate.cache.use_second_level_cache:false}")
+    private boolean secondLevelCache;
 
     @Override
     public BookingDto addBooking(Long userId, BookingDto bookingDto) {
@@ -60,6 +77,7 @@ public class BookingServiceImpl implements BookingService {
         Booking booking = bookingMapper.toBooking(bookingDto, item, booker);
         booking.setStatus(BookingStatus.WAITING);
         booking = bookingRepository.save(booking);
+        eventPublisher.publishEvent(BookingEvent.of(BookingEventType.CREATED, booking));
 
         UserDto bookerDto = userMapper.toUserDto(booker);
         ItemDto itemDto = itemMapper.toItemDto(item);
@@ -70,6 +88,69 @@ public class BookingServiceImpl implements BookingService {
         return bookingDtoResult;
     }
 
+    @Override
+    public List<BookingBatchResultDto> addBookings(Long userId, List<BookingDto> bookingDtos) {
+        if (bookingDtos.size() > MAX_BATCH_SIZE) {
+            throw new ValidationException("Batch cannot contain more than " + MAX_BATCH_SIZE + " bookings");
+        }
+        User booker = userRepository.findById(userId)
+                .orElseThrow(() -> new UserNotFoundException("User with id " + userId + " not found"));
+
+        Set<Long> itemIds = bookingDtos.stream()
+                .filter(Objects::nonNull)
+                .map(BookingDto::getItemId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, Item> items = itemRepository.findAllById(itemIds).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+
+        List<BookingBatchResultDto> results = new ArrayList<>(bookingDtos.size());
+        List<BookingBatchResultDto> accepted = new ArrayList<>();
+        List<Booking> bookings = new ArrayList<>();
+        for (int i = 0; i < bookingDtos.size(); i++) {
+            BookingDto bookingDto = bookingDtos.get(i);
+            Item item = bookingDto == null ? null : items.get(bookingDto.getItemId());
+            String error = validateBatchRow(bookingDto, item, userId);
+            BookingBatchResultDto result = new BookingBatchResultDto(i, null, error);
+            results.add(result);
+            if (error == null) {
+                bookings.add(bookingMapper.toBooking(bookingDto, item, booker));
+                accepted.add(result);
+            }
+        }
+
+        List<Booking> saved = bookingRepository.saveAll(bookings);
+        UserDto bookerDto = userMapper.toUserDto(booker);
+        for (int i = 0; i < saved.size(); i++) {
+            Booking booking = saved.get(i);
+            eventPublisher.publishEvent(BookingEvent.of(BookingEventType.CREATED, booking));
+            accepted.get(i).setBooking(bookingMapper.toBookingDto(booking, itemMapper.toItemDto(booking.getItem()), bookerDto));
+        }
+        return results;
+    }
+
+    private static String validateBatchRow(BookingDto bookingDto, Item item, Long userId) {
+        if (bookingDto == null || bookingDto.getItemId() == null) {
+            return "Item ID cannot be null";
+        }
+        if (item == null) {
+            return "Item with id " + bookingDto.getItemId() + " not found";
+        }
+        if (!item.getAvailable()) {
+            return "Item is not available for booking";
+        }
+        if (bookingDto.getStart() == null || bookingDto.getEnd() == null) {
+            return "Start and end dates cannot be null";
+        }
+        if (!bookingDto.getStart().isBefore(bookingDto.getEnd())) {
+            return "Start date must be before end date";
+        }
+        if (item.getOwner().getId().equals(userId)) {
+            return "Owner cannot book their own item";
+        }
+        return null;
+    }
+
     @Override
     @Transactional
     public BookingDto confirmOrRejectBooking(Long bookingId, Long userId, Boolean approved) {
@@ -85,7 +166,9 @@ public class BookingServiceImpl implements BookingService {
         }
 
         booking.setStatus(approved ? BookingStatus.APPROVED : BookingStatus.REJECTED);
-        bookingRepository.save(booking);
+        bookingRepository.saveAndFlush(booking);
+        eventPublisher.publishEvent(BookingEvent.of(
+                approved ? BookingEventType.APPROVED : BookingEventType.REJECTED, booking));
 
         Item item = booking.getItem();
         User booker = booking.getBooker();
@@ -96,10 +179,132 @@ public class BookingServiceImpl implements BookingService {
         return bookingDtoResult;
     }
 
+    @Override
+    public List<BookingDecisionResultDto> decideBookings(Long userId, List<BookingDecisionDto> decisions) {
+        if (decisions.size() > MAX_BATCH_SIZE) {
+            throw new ValidationException("Batch cannot contain more than " + MAX_BATCH_SIZE + " decisions");
+        }
+        userService.getUserById(userId);
+
+        Set<Long> bookingIds = decisions.stream()
+                .filter(Objects::nonNull)
+                .map(BookingDecisionDto::getBookingId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, BookingDecisionCandidate> candidates = bookingIds.isEmpty()
+                ? Map.of()
+                : bookingRepository.findDecisionCandidates(bookingIds).stream()
+                        .collect(Collectors.toMap(BookingDecisionCandidate::getId, Function.identity()));
+
+        List<BookingDecisionResultDto> results = new ArrayList<>(decisions.size());
+        Map<Long, BookingDecisionResultDto> pending = new LinkedHashMap<>();
+        for (BookingDecisionDto decision : decisions) {
+            Long bookingId = decision == null ? null : decision.getBookingId();
+            BookingDecisionCandidate candidate = bookingId == null ? null : candidates.get(bookingId);
+            BookingDecisionResultDto result = new BookingDecisionResultDto(bookingId, null, null);
+            results.add(result);
+            String error = validateDecision(decision, candidate, userId, pending.containsKey(bookingId));
+            if (error != null) {
+                result.setError(error);
+                continue;
+            }
+            pending.put(bookingId, result);
+            if (decision.getApproved()) {
+                result.setStatus(BookingStatus.APPROVED.toString());
+            } else {
+                result.setStatus(BookingStatus.REJECTED.toString());
+            }
+        }
+        if (pending.isEmpty()) {
+            return results;
+        }
+
+        markOverlaps(pending, candidates);
+        pending.forEach((bookingId, result) -> {
+            BookingDecisionCandidate candidate = candidates.get(bookingId);
+            BookingStatus status = BookingStatus.valueOf(result.getStatus());
+            if (bookingRepository.applyDecision(bookingId, candidate.getVersion(), status) == 0) {
+                result.setStatus(null);
+                result.setError("Booking was modified concurrently");
+                return;
+            }
+            eventPublisher.publishEvent(new BookingEvent(
+                    status == BookingStatus.APPROVED ? BookingEventType.APPROVED : BookingEventType.REJECTED,
+                    bookingId, candidate.getItemId(), candidate.getBookerId(), candidate.getOwnerId(), status,
+                    candidate.getStart(), candidate.getEnd()));
+        });
+        return results;
+    }
+
+    /**
+     * Rejects, as a per-entry error, every approval that overlaps an approved booking of the same item, either one
+     * already stored or one approved earlier in the batch. Left to the exclusion constraint, a single overlap would
+     * fail the whole batch.
+     */
+    private void markOverlaps(Map<Long, BookingDecisionResultDto> pending,
+                              Map<Long, BookingDecisionCandidate> candidates) {
+        List<BookingDecisionCandidate> approvals = pending.entrySet().stream()
+                .filter(entry -> BookingStatus.APPROVED.toString().equals(entry.getValue().getStatus()))
+                .map(entry -> candidates.get(entry.getKey()))
+                .collect(Collectors.toList());
+        if (approvals.isEmpty()) {
+            return;
+        }
+        Set<Long> itemIds = approvals.stream()
+                .map(BookingDecisionCandidate::getItemId)
+                .collect(Collectors.toSet());
+        LocalDateTime from = approvals.stream().map(BookingDecisionCandidate::getStart)
+                .min(Comparator.naturalOrder()).orElseThrow();
+        LocalDateTime to = approvals.stream().map(BookingDecisionCandidate::getEnd)
+                .max(Comparator.naturalOrder()).orElseThrow();
+        Map<Long, List<BookingDecisionCandidate>> approved = bookingRepository.findApprovedBetween(itemIds, from, to)
+                .stream()
+                .collect(Collectors.groupingBy(BookingDecisionCandidate::getItemId,
+                        Collectors.toCollection(ArrayList::new)));
+        for (BookingDecisionCandidate approval : approvals) {
+            List<BookingDecisionCandidate> sameItem = approved.computeIfAbsent(approval.getItemId(),
+                    itemId -> new ArrayList<>());
+            boolean overlaps = sameItem.stream().anyMatch(other -> other.getStart().isBefore(approval.getEnd())
+                    && approval.getStart().isBefore(other.getEnd()));
+            if (overlaps) {
+                BookingDecisionResultDto result = pending.remove(approval.getId());
+                result.setStatus(null);
+                result.setError("Booking overlaps an approved booking of the same item");
+            } else {
+                sameItem.add(approval);
+            }
+        }
+    }
+
+    private static String validateDecision(BookingDecisionDto decision, BookingDecisionCandidate candidate,
+                                           Long userId, boolean duplicate) {
+        if (decision == null || decision.getBookingId() == null) {
+            return "Booking ID cannot be null";
+        }
+        if (decision.getApproved() == null) {
+            return "Decision cannot be null";
+        }
+        if (duplicate) {
+            return "Booking appears more than once in the batch";
+        }
+        if (candidate == null) {
+            return "Booking not found";
+        }
+        if (!candidate.getOwnerId().equals(userId)) {
+            return "Only the item owner can confirm or reject the booking";
+        }
+        if (candidate.getStatus() != BookingStatus.WAITING) {
+            return "Cannot confirm or reject a booking that is not in WAITING status";
+        }
+        return null;
+    }
+
     @Override
     @Transactional
     public BookingDto getBookingById(Long bookingId, Long userId) {
-        Booking booking = bookingRepository.findById(bookingId)
+        Booking booking = (secondLevelCache
+                ? bookingRepository.findWithoutJoinsById(bookingId)
+                : bookingRepository.findById(bookingId))
                 .orElseThrow(() -> new BookingNotFoundException("Booking not found"));
 
         if (!booking.getBooker().getId().equals(userId) && !booking.getItem().getOwner().getId().equals(userId)) {
@@ -117,93 +322,205 @@ public class BookingServiceImpl implements BookingService {
     }
 
     @Override
-    @Transactional
+    @Transactional(readOnly = true)
+    public String getBookingETag(Long bookingId, Long userId) {
+        BookingVersionView version = bookingRepository.findVersionById(bookingId).orElse(null);
+        if (version == null || !(version.getBookerId().equals(userId) || version.getOwnerId().equals(userId))) {
+            return null;
+        }
+        return version.getVersion() + "-" + version.getItemVersion() + "-" + version.getBookerVersion();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public List<BookingDto> getAllBookingsByUserId(Long userId, BookingState state) {
-        userRepository.findById(userId)
-                .orElseThrow(() -> new UserNotFoundException("User not found"));
+        userService.getUserById(userId);
 
         LocalDateTime now = LocalDateTime.now();
-        List<Booking> bookings;
-        Sort sort = Sort.by(Sort.Direction.DESC, "start");
+        List<BookingView> bookings;
 
         switch (state) {
             case CURRENT:
-                bookings = bookingRepository.findByBookerIdAndStartBeforeAndEndAfter(userId, now, now, sort);
+                bookings = bookingRepository.findCurrentViewsByBookerId(userId, now);
                 break;
             case PAST:
-                bookings = bookingRepository.findByBookerIdAndEndBefore(userId, now, sort);
+                bookings = bookingRepository.findPastViewsByBookerId(userId, now);
                 break;
             case FUTURE:
-                bookings = bookingRepository.findByBookerIdAndStartAfter(userId, now, sort);
+                bookings = bookingRepository.findFutureViewsByBookerId(userId, now);
                 break;
             case WAITING:
-                bookings = bookingRepository.findByBookerIdAndStatus(userId, BookingStatus.WAITING, sort);
+                bookings = bookingRepository.findViewsByBookerIdAndStatus(userId, BookingStatus.WAITING);
                 break;
             case REJECTED:
-                bookings = bookingRepository.findByBookerIdAndStatus(userId, BookingStatus.REJECTED, sort);
+                bookings = bookingRepository.findViewsByBookerIdAndStatus(userId, BookingStatus.REJECTED);
+                break;
+            case EXPIRED:
+                bookings = bookingRepository.findViewsByBookerIdAndStatus(userId, BookingStatus.EXPIRED);
                 break;
             case ALL:
-                bookings = bookingRepository.findByBookerId(userId, sort);
+                bookings = bookingRepository.findViewsByBookerId(userId);
                 break;
             default:
                 throw new IllegalArgumentException("Unknown state: " + state);
         }
 
         return bookings.stream()
-                .map(booking -> {
-                    Item item = booking.getItem();
-                    User booker = booking.getBooker();
-                    ItemDto itemDto = itemMapper.toItemDto(item);
-                    UserDto bookerDto = userMapper.toUserDto(booker);
-                    BookingDto bookingDtoResult = bookingMapper.toBookingDto(booking, itemDto, bookerDto);
-                    bookingDtoResult.setStatus(booking.getStatus().toString());
-                    return bookingDtoResult;
-                })
+                .map(bookingMapper::toBookingDto)
                 .collect(Collectors.toList());
     }
 
     @Override
-    @Transactional
+    @Transactional(readOnly = true)
+    public BookingPage getBookingsPageByUserId(Long userId, BookingState state, String cursor, int limit) {
+        userService.getUserById(userId);
+
+        LocalDateTime now = LocalDateTime.now();
+        BookingCursor after = BookingCursor.decode(cursor);
+        Limit pageLimit = Limit.of(limit + 1);
+        List<BookingView> bookings;
+
+        switch (state) {
+            case CURRENT:
+                bookings = bookingRepository.findCurrentViewPageByBookerId(userId, now, after.getStart(), after.getId(),
+                        pageLimit);
+                break;
+            case PAST:
+                bookings = bookingRepository.findPastViewPageByBookerId(userId, now, after.getStart(), after.getId(),
+                        pageLimit);
+                break;
+            case FUTURE:
+                bookings = bookingRepository.findFutureViewPageByBookerId(userId, now, after.getStart(), after.getId(),
+                        pageLimit);
+                break;
+            case WAITING:
+                bookings = bookingRepository.findViewPageByBookerIdAndStatus(userId, BookingStatus.WAITING,
+                        after.getStart(), after.getId(), pageLimit);
+                break;
+            case REJECTED:
+                bookings = bookingRepository.findViewPageByBookerIdAndStatus(userId, BookingStatus.REJECTED,
+                        after.getStart(), after.getId(), pageLimit);
+                break;
+            case EXPIRED:
+                bookings = bookingRepository.findViewPageByBookerIdAndStatus(userId, BookingStatus.EXPIRED,
+                        after.getStart(), after.getId(), pageLimit);
+                break;
+            case ALL:
+                bookings = bookingRepository.findViewPageByBookerId(userId, after.getStart(), after.getId(), pageLimit);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown state: " + state);
+        }
+
+        return toBookingPage(bookings, limit);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public List<BookingDto> getAllBookingsByOwnerId(Long userId, BookingState state) {
-        userRepository.findById(userId)
-                .orElseThrow(() -> new UserNotFoundException("User not found"));
+        userService.getUserById(userId);
 
         LocalDateTime now = LocalDateTime.now();
-        List<Booking> bookings;
-        Sort sort = Sort.by(Sort.Direction.DESC, "start");
+        List<BookingView> bookings;
 
         switch (state) {
             case CURRENT:
-                bookings = bookingRepository.findByItemOwnerIdAndStartBeforeAndEndAfter(userId, now, now, sort);
+                bookings = bookingRepository.findCurrentViewsByItemOwnerId(userId, now);
                 break;
             case PAST:
-                bookings = bookingRepository.findByItemOwnerIdAndEndBefore(userId, now, sort);
+                bookings = bookingRepository.findPastViewsByItemOwnerId(userId, now);
                 break;
             case FUTURE:
-                bookings = bookingRepository.findByItemOwnerIdAndStartAfter(userId, now, sort);
+                bookings = bookingRepository.findFutureViewsByItemOwnerId(userId, now);
                 break;
             case WAITING:
-                bookings = bookingRepository.findByItemOwnerIdAndStatus(userId, BookingStatus.WAITING, sort);
+                bookings = bookingRepository.findViewsByItemOwnerIdAndStatus(userId, BookingStatus.WAITING);
                 break;
             case REJECTED:
-                bookings = bookingRepository.findByItemOwnerIdAndStatus(userId, BookingStatus.REJECTED, sort);
+                bookings = bookingRepository.findViewsByItemOwnerIdAndStatus(userId, BookingStatus.REJECTED);
+                break;
+            case EXPIRED:
+                bookings = bookingRepository.findViewsByItemOwnerIdAndStatus(userId, BookingStatus.EXPIRED);
                 break;
             case ALL:
-                bookings = bookingRepository.findByItemOwnerId(userId, sort);
+                bookings = bookingRepository.findViewsByItemOwnerId(userId);
                 break;
             default:
                 throw new IllegalArgumentException("Unknown state: " + state);
         }
 
         return bookings.stream()
-                .map(booking -> {
-                    Item item = booking.getItem();
-                    User booker = booking.getBooker();
-                    ItemDto itemDto = itemMapper.toItemDto(item);
-                    UserDto bookerDto = userMapper.toUserDto(booker);
-                    BookingDto bookingDtoResult = bookingMapper.toBookingDto(booking, itemDto, bookerDto);
-                    bookingDtoResult.setStatus(booking.getStatus().toString());
-                    return bookingDtoResult;
-                }).collect(Collectors.toList());
-    }
-}
\ No newline at end of file
+                .map(bookingMapper::toBookingDto)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public BookingPage getBookingsPageByOwnerId(Long userId, BookingState state, String cursor, int limit) {
+        userService.getUserById(userId);
+
+        LocalDateTime now = LocalDateTime.now();
+        BookingCursor after = BookingCursor.decode(cursor);
+        Limit pageLimit = Limit.of(limit + 1);
+        List<BookingView> bookings;
+
+        switch (state) {
+            case CURRENT:
+                bookings = bookingRepository.findCurrentViewPageByItemOwnerId(userId, now, after.getStart(), after.getId(),
+                        pageLimit);
+                break;
+            case PAST:
+                bookings = bookingRepository.findPastViewPageByItemOwnerId(userId, now, after.getStart(), after.getId(),
+                        pageLimit);
+                break;
+            case FUTURE:
+                bookings = bookingRepository.findFutureViewPageByItemOwnerId(userId, now, after.getStart(), after.getId(),
+                        pageLimit);
+                break;
+            case WAITING:
+                bookings = bookingRepository.findViewPageByItemOwnerIdAndStatus(userId, BookingStatus.WAITING,
+                        after.getStart(), after.getId(), pageLimit);
+                break;
+            case REJECTED:
+                bookings = bookingRepository.findViewPageByItemOwnerIdAndStatus(userId, BookingStatus.REJECTED,
+                        after.getStart(), after.getId(), pageLimit);
+                break;
+            case EXPIRED:
+                bookings = bookingRepository.findViewPageByItemOwnerIdAndStatus(userId, BookingStatus.EXPIRED,
+                        after.getStart(), after.getId(), pageLimit);
+                break;
+            case ALL:
+                bookings = bookingRepository.findViewPageByItemOwnerId(userId, after.getStart(), after.getId(), pageLimit);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown state: " + state);
+        }
+
+        return toBookingPage(bookings, limit);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public BookingSummaryDto getBookingSummaryByUserId(Long userId) {
+        userService.getUserById(userId);
+        return bookingRepository.summarizeByBookerId(userId, LocalDateTime.now());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public BookingSummaryDto getBookingSummaryByOwnerId(Long userId) {
+        userService.getUserById(userId);
+        return bookingRepository.summarizeByItemOwnerId(userId, LocalDateTime.now());
+    }
+
+    private BookingPage toBookingPage(List<BookingView> bookings, int limit) {
+        String nextCursor = null;
+        if (bookings.size() > limit) {
+            bookings = bookings.subList(0, limit);
+            nextCursor = BookingCursor.encode(bookings.get(limit - 1));
+        }
+        return new BookingPage(bookings.stream()
+                .map(bookingMapper::toBookingDto)
+                .collect(Collectors.toList()), nextCursor);
+    }
+}
@@ -7,5 +7,6 @@ public enum BookingState {
     FUTURE,
     WAITING,
     REJECTED,
-    CANCELED
+    CANCELED,
+    EXPIRED
 }
\ No newline at end of file
@@ -0,0 +1,12 @@
+package ru.practicum.shareit.booking;
+
+public interface ExpiringBooking {
+
+    Long getId();
+
+    Long getItemId();
+
+    Long getBookerId();
+
+    Long getOwnerId();
+}
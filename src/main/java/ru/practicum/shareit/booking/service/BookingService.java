@@ -1,7 +1,12 @@
 package ru.practicum.shareit.booking.service;
 
+import ru.practicum.shareit.booking.BookingBatchResultDto;
+import ru.practicum.shareit.booking.BookingDecisionDto;
+import ru.practicum.shareit.booking.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.BookingDto;
+import ru.practicum.shareit.booking.BookingPage;
 import ru.practicum.shareit.booking.BookingState;
+import ru.practicum.shareit.booking.BookingSummaryDto;
 
 import java.util.List;
 
@@ -9,11 +14,25 @@ public interface BookingService {
 
     BookingDto addBooking(Long userId, BookingDto bookingDto);
 
+    List<BookingBatchResultDto> addBookings(Long userId, List<BookingDto> bookingDtos);
+
     BookingDto confirmOrRejectBooking(Long bookingId, Long userId, Boolean approved);
 
+    List<BookingDecisionResultDto> decideBookings(Long userId, List<BookingDecisionDto> decisions);
+
     BookingDto getBookingById(Long bookingId, Long userId);
 
+    String getBookingETag(Long bookingId, Long userId);
+
     List<BookingDto> getAllBookingsByUserId(Long userId, BookingState state);
 
     List<BookingDto> getAllBookingsByOwnerId(Long userId, BookingState state);
+
+    BookingSummaryDto getBookingSummaryByUserId(Long userId);
+
+    BookingSummaryDto getBookingSummaryByOwnerId(Long userId);
+
+    BookingPage getBookingsPageByUserId(Long userId, BookingState state, String cursor, int limit);
+
+    BookingPage getBookingsPageByOwnerId(Long userId, BookingState state, String cursor, int limit);
 }
\ No newline at end of file
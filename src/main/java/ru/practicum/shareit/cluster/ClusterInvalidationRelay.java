@@ -0,0 +1,275 @@
+package ru.practicum.shareit.cluster;
+
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.BookingEvent;
+import ru.practicum.shareit.booking.BookingEventType;
+import ru.practicum.shareit.booking.BookingStatus;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Forwards invalidations between nodes over PostgreSQL LISTEN/NOTIFY. NOTIFY is sent from the writing transaction,
+ * so other nodes only hear about committed changes; a node that loses its listening connection flushes every region
+ * once it reconnects, since notifications sent in between are gone. Booking events travel the same way on their own
+ * channel and reach the other nodes' stream subscribers as {@link RemoteBookingEvent}s; those lost while a node is
+ * disconnected are not replayed.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.cluster-invalidation.enabled", havingValue = "true")
+public class ClusterInvalidationRelay implements DisposableBean {
+
+    private static final String SEPARATOR = ":";
+    private static final String ENTRY_SEPARATOR = ";";
+    private static final String FIELD_SEPARATOR = ",";
+    // PostgreSQL rejects NOTIFY payloads of 8000 bytes or more
+    private static final int MAX_PAYLOAD_LENGTH = 7900;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final DataSourceProperties dataSourceProperties;
+    private final String channel;
+    private final String bookingEventChannel;
+    private final Duration pollTimeout;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Thread listener;
+    private volatile boolean running = true;
+
+    public ClusterInvalidationRelay(JdbcTemplate jdbcTemplate,
+                                    ApplicationEventPublisher eventPublisher,
+                                    DataSourceProperties dataSourceProperties,
+                                    @Value("${shareit.cluster-invalidation.channel:shareit_invalidation}") String channel,
+                                    @Value("${shareit.cluster-invalidation.booking-event-channel:shareit_booking_events}")
+                                    String bookingEventChannel,
+                                    @Value("${shareit.cluster-invalidation.poll-timeout:PT1S}") Duration pollTimeout) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventPublisher = eventPublisher;
+        this.dataSourceProperties = dataSourceProperties;
+        this.channel = channel;
+        this.bookingEventChannel = bookingEventChannel;
+        this.pollTimeout = pollTimeout;
+        listener = new Thread(this::listen, "cluster-invalidation");
+        listener.setDaemon(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        listener.start();
+    }
+
+    @EventListener
+    public void onInvalidation(InvalidationEvent event) {
+        if (!event.isRemote()) {
+            enqueue(event.getRegion(), event.getKey());
+        }
+    }
+
+    @EventListener
+    public void onBookingEvent(BookingEvent event) {
+        enqueue(InvalidationRegion.ITEM_BOOKINGS, event.getItemId());
+        // Like local delivery, which happens after commit, a booking event outside a transaction goes nowhere
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            pendingInTransaction().bookingEvents.add(encode(event));
+        }
+    }
+
+    @Override
+    public void destroy() {
+        running = false;
+        listener.interrupt();
+    }
+
+    /**
+     * Collects the invalidations of the current transaction, deduplicated, and sends them as one notification just
+     * before it commits; a batch touching many items costs a single NOTIFY rather than one per event. Outside a
+     * transaction the invalidation is sent straight away.
+     */
+    private void enqueue(InvalidationRegion region, Long key) {
+        String entry = region + SEPARATOR + (key == null ? "" : key);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            send(channel, List.of(entry));
+            return;
+        }
+        pendingInTransaction().invalidations.add(entry);
+    }
+
+    private Pending pendingInTransaction() {
+        Pending pending = (Pending) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            Pending created = new Pending();
+            TransactionSynchronizationManager.bindResource(this, created);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    send(channel, created.invalidations);
+                    send(bookingEventChannel, created.bookingEvents);
+                    created.invalidations.clear();
+                    created.bookingEvents.clear();
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(ClusterInvalidationRelay.this);
+                }
+            });
+            pending = created;
+        }
+        return pending;
+    }
+
+    private void send(String target, Collection<String> entries) {
+        StringBuilder payload = new StringBuilder();
+        for (String entry : entries) {
+            if (payload.length() > 0 && payload.length() + entry.length() + 1 > MAX_PAYLOAD_LENGTH) {
+                sendPayload(target, payload.toString());
+                payload.setLength(0);
+            }
+            payload.append(payload.length() == 0 ? nodeId + SEPARATOR : ENTRY_SEPARATOR).append(entry);
+        }
+        if (payload.length() > 0) {
+            sendPayload(target, payload.toString());
+        }
+    }
+
+    private void sendPayload(String target, String payload) {
+        jdbcTemplate.queryForList("SELECT pg_notify(?, ?)", target, payload);
+    }
+
+    private void listen() {
+        boolean connectedBefore = false;
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword());
+                 Statement statement = connection.createStatement()) {
+                statement.execute("LISTEN " + channel);
+                statement.execute("LISTEN " + bookingEventChannel);
+                if (connectedBefore) {
+                    log.info("Cluster invalidation listener reconnected, flushing node-local caches");
+                    for (InvalidationRegion region : InvalidationRegion.values()) {
+                        receive(InvalidationEvent.remote(region, null));
+                    }
+                }
+                connectedBefore = true;
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications((int) pollTimeout.toMillis());
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            if (bookingEventChannel.equals(notification.getName())) {
+                                receiveBookingEvents(notification.getParameter());
+                            } else {
+                                receive(notification.getParameter());
+                            }
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                if (running) {
+                    log.warn("Cluster invalidation listener lost its connection, retrying in {}", pollTimeout, e);
+                    pause();
+                }
+            }
+        }
+    }
+
+    private void receive(String payload) {
+        String[] parts = payload.split(SEPARATOR, 2);
+        if (parts.length != 2 || nodeId.equals(parts[0])) {
+            return;
+        }
+        for (String entry : parts[1].split(ENTRY_SEPARATOR)) {
+            String[] fields = entry.split(SEPARATOR, 2);
+            try {
+                if (fields.length != 2) {
+                    throw new IllegalArgumentException(entry);
+                }
+                Long key = fields[1].isEmpty() ? null : Long.valueOf(fields[1]);
+                receive(InvalidationEvent.remote(InvalidationRegion.valueOf(fields[0]), key));
+            } catch (IllegalArgumentException e) {
+                log.warn("Ignoring malformed invalidation {} in {}", entry, payload);
+            }
+        }
+    }
+
+    private void receiveBookingEvents(String payload) {
+        String[] parts = payload.split(SEPARATOR, 2);
+        if (parts.length != 2 || nodeId.equals(parts[0])) {
+            return;
+        }
+        for (String entry : parts[1].split(ENTRY_SEPARATOR)) {
+            BookingEvent event;
+            try {
+                event = decode(entry);
+            } catch (RuntimeException e) {
+                log.warn("Ignoring malformed booking event {} in {}", entry, payload);
+                continue;
+            }
+            receive(new RemoteBookingEvent(event));
+        }
+    }
+
+    private void receive(Object event) {
+        try {
+            eventPublisher.publishEvent(event);
+        } catch (RuntimeException e) {
+            log.warn("Failed to apply {}", event, e);
+        }
+    }
+
+    private static String encode(BookingEvent event) {
+        return String.join(FIELD_SEPARATOR, event.getType().name(), String.valueOf(event.getBookingId()),
+                String.valueOf(event.getItemId()), String.valueOf(event.getBookerId()),
+                String.valueOf(event.getOwnerId()), event.getStatus().name(),
+                event.getStart() == null ? "" : event.getStart().toString(),
+                event.getEnd() == null ? "" : event.getEnd().toString());
+    }
+
+    private static BookingEvent decode(String entry) {
+        String[] fields = entry.split(FIELD_SEPARATOR, -1);
+        if (fields.length != 8) {
+            throw new IllegalArgumentException(entry);
+        }
+        return new BookingEvent(BookingEventType.valueOf(fields[0]), Long.valueOf(fields[1]), Long.valueOf(fields[2]),
+                Long.valueOf(fields[3]), Long.valueOf(fields[4]), BookingStatus.valueOf(fields[5]),
+                fields[6].isEmpty() ? null : LocalDateTime.parse(fields[6]),
+                fields[7].isEmpty() ? null : LocalDateTime.parse(fields[7]));
+    }
+
+    private void pause() {
+        try {
+            Thread.sleep(pollTimeout.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+
+    private static final class Pending {
+        final Set<String> invalidations = new LinkedHashSet<>();
+        final List<String> bookingEvents = new ArrayList<>();
+    }
+}
@@ -0,0 +1,27 @@
+package ru.practicum.shareit.cluster;
+
+import lombok.Value;
+
+/**
+ * Tells node-local caches that an entity changed. Published inside the writing transaction and applied by listeners
+ * after commit; {@link ClusterInvalidationRelay} forwards local events to the other nodes. A null key invalidates
+ * the whole region.
+ */
+@Value
+public class InvalidationEvent {
+    InvalidationRegion region;
+    Long key;
+    boolean remote;
+
+    public static InvalidationEvent of(InvalidationRegion region, Long key) {
+        return new InvalidationEvent(region, key, false);
+    }
+
+    public static InvalidationEvent remote(InvalidationRegion region, Long key) {
+        return new InvalidationEvent(region, key, true);
+    }
+
+    public boolean isRegionWide() {
+        return key == null;
+    }
+}
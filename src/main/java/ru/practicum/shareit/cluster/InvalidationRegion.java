@@ -0,0 +1,7 @@
+package ru.practicum.shareit.cluster;
+
+public enum InvalidationRegion {
+    ITEM,
+    USER,
+    ITEM_BOOKINGS
+}
@@ -0,0 +1,14 @@
+package ru.practicum.shareit.cluster;
+
+import lombok.Value;
+import ru.practicum.shareit.booking.BookingEvent;
+
+/**
+ * A {@link BookingEvent} committed on another node and forwarded by {@link ClusterInvalidationRelay}. Kept apart
+ * from {@link BookingEvent} so only this node's stream subscribers see it; the writes that follow a booking change
+ * already happened on the node that made it.
+ */
+@Value
+public class RemoteBookingEvent {
+    BookingEvent event;
+}
@@ -0,0 +1,37 @@
+package ru.practicum.shareit.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "shareit.datasource.bulkhead.enabled", havingValue = "true")
+public class BulkheadDataSourceConfig {
+
+    @Bean
+    public static BeanPostProcessor bulkheadDataSourcePostProcessor(
+            @Value("${shareit.datasource.bulkhead.acquire-timeout:30s}") Duration acquireTimeout,
+            ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                // Wraps the pool itself, not the routing proxy in front of it; ReplicaRoutingConfig wraps the replicas
+                if (!(bean instanceof HikariDataSource pool)) {
+                    return bean;
+                }
+                String poolName = pool.getPoolName() != null ? pool.getPoolName() : beanName;
+                log.info("Wrapping pool {} in a bulkhead of {} permits", poolName, pool.getMaximumPoolSize());
+                return BulkheadDataSource.wrap(pool, poolName, acquireTimeout, meterRegistry.getIfAvailable());
+            }
+        };
+    }
+}
@@ -0,0 +1,33 @@
+package ru.practicum.shareit.datasource;
+
+import java.util.function.Supplier;
+
+/**
+ * Routing hint that sends the statements of a callback to the primary even inside a read-only transaction. Reads
+ * that refill a cache or an index after a commit go through it: a lagging replica would hand back the state from
+ * before that commit, and the cache would keep it until the next invalidation. The hint only applies to a connection
+ * the callback opens itself, which is the case for the first statement of a transaction.
+ */
+public final class PrimaryRead {
+
+    private static final ThreadLocal<Boolean> ACTIVE = new ThreadLocal<>();
+
+    private PrimaryRead() {
+    }
+
+    public static <T> T call(Supplier<T> read) {
+        if (isActive()) {
+            return read.get();
+        }
+        ACTIVE.set(Boolean.TRUE);
+        try {
+            return read.get();
+        } finally {
+            ACTIVE.remove();
+        }
+    }
+
+    static boolean isActive() {
+        return ACTIVE.get() != null;
+    }
+}
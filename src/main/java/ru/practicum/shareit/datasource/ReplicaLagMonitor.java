@@ -0,0 +1,37 @@
+package ru.practicum.shareit.datasource;
+
+import lombok.Getter;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+public class ReplicaLagMonitor implements DisposableBean {
+
+    @Getter
+    private final List<ReplicaPool> replicas;
+    private final ScheduledExecutorService scheduler;
+
+    public ReplicaLagMonitor(List<ReplicaPool> replicas, String lagQuery, Duration maxLag, Duration checkInterval) {
+        this.replicas = replicas;
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-lag-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // The first check runs off the startup thread: replicas start bypassed and an unreachable one must not
+        // hold up the application while its connection attempt times out
+        long interval = checkInterval.toMillis();
+        scheduler.scheduleWithFixedDelay(() -> replicas.forEach(replica -> replica.checkLag(lagQuery, maxLag)),
+                0, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdownNow();
+        replicas.forEach(replica -> replica.getDataSource().close());
+    }
+}
@@ -0,0 +1,49 @@
+package ru.practicum.shareit.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+
+@Slf4j
+@Getter
+public class ReplicaPool {
+
+    private final String name;
+    private final HikariDataSource dataSource;
+    // What reads are routed to: the pool itself, or the pool behind its own bulkhead
+    private final DataSource routingTarget;
+    private volatile boolean healthy;
+    private volatile long lagMillis = -1;
+
+    public ReplicaPool(String name, HikariDataSource dataSource, DataSource routingTarget) {
+        this.name = name;
+        this.dataSource = dataSource;
+        this.routingTarget = routingTarget;
+    }
+
+    public void checkLag(String lagQuery, Duration maxLag) {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(lagQuery)) {
+            lagMillis = resultSet.next() ? resultSet.getLong(1) : 0;
+            boolean withinLag = lagMillis <= maxLag.toMillis();
+            if (withinLag != healthy) {
+                log.info("Replica {} is now {} (lag {} ms)", name, withinLag ? "in use" : "bypassed", lagMillis);
+            }
+            healthy = withinLag;
+        } catch (SQLException | RuntimeException e) {
+            if (healthy) {
+                log.warn("Replica {} is bypassed, lag check failed: {}", name, e.getMessage());
+            }
+            lagMillis = -1;
+            healthy = false;
+        }
+    }
+}
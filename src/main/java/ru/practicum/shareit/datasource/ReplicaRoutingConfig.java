@@ -0,0 +1,89 @@
+package ru.practicum.shareit.datasource;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Slf4j
+@Configuration
+@EnableConfigurationProperties(ReplicaRoutingProperties.class)
+@ConditionalOnProperty(name = "shareit.datasource.replicas.enabled", havingValue = "true")
+public class ReplicaRoutingConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties, MeterRegistry meterRegistry) {
+        HikariDataSource dataSource = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        dataSource.setPoolName("primary");
+        dataSource.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(ReplicaRoutingProperties properties, MeterRegistry meterRegistry,
+                                               @Value("${shareit.datasource.bulkhead.enabled:false}") boolean bulkhead,
+                                               @Value("${shareit.datasource.bulkhead.acquire-timeout:30s}")
+                                               Duration acquireTimeout) {
+        if (properties.getPools().isEmpty()) {
+            throw new IllegalStateException("shareit.datasource.replicas.enabled is set but no pools are configured");
+        }
+        List<ReplicaPool> replicas = new ArrayList<>();
+        for (int i = 0; i < properties.getPools().size(); i++) {
+            HikariConfig config = properties.getPools().get(i);
+            if (config.getPoolName() == null) {
+                config.setPoolName("replica-" + i);
+            }
+            config.setReadOnly(true);
+            // A replica that is down at startup is only bypassed; the lag check brings it in once it answers
+            config.setInitializationFailTimeout(-1);
+            config.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            HikariDataSource pool = new HikariDataSource(config);
+            DataSource routingTarget = bulkhead
+                    ? BulkheadDataSource.wrap(pool, config.getPoolName(), acquireTimeout, meterRegistry)
+                    : pool;
+            ReplicaPool replica = new ReplicaPool(config.getPoolName(), pool, routingTarget);
+            Gauge.builder("shareit.datasource.replica.lag", replica, ReplicaPool::getLagMillis)
+                    .tag("pool", replica.getName())
+                    .baseUnit("milliseconds")
+                    .register(meterRegistry);
+            Gauge.builder("shareit.datasource.replica.healthy", replica, r -> r.isHealthy() ? 1 : 0)
+                    .tag("pool", replica.getName())
+                    .register(meterRegistry);
+            replicas.add(replica);
+        }
+        return new ReplicaLagMonitor(replicas, properties.getLagQuery(), properties.getMaxLag(),
+                properties.getCheckInterval());
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                 ReplicaLagMonitor replicaLagMonitor,
+                                 MeterRegistry meterRegistry) {
+        List<ReplicaPool> replicas = replicaLagMonitor.getReplicas();
+        log.info("Routing read-only transactions to {} replica pool(s)", replicas.size());
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, replicas, meterRegistry);
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+}
@@ -0,0 +1,66 @@
+package ru.practicum.shareit.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    static final String PRIMARY = "primary";
+
+    private final List<ReplicaPool> replicas;
+    private final AtomicInteger next = new AtomicInteger();
+    private final Counter writes;
+    private final Counter replicaReads;
+    private final Counter fallbackReads;
+    private final Counter primaryReads;
+
+    public ReplicaRoutingDataSource(DataSource primary, List<ReplicaPool> replicas, MeterRegistry meterRegistry) {
+        this.replicas = replicas;
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        replicas.forEach(replica -> targets.put(replica.getName(), replica.getRoutingTarget()));
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        writes = routed(meterRegistry, "primary");
+        replicaReads = routed(meterRegistry, "replica");
+        fallbackReads = routed(meterRegistry, "primary-fallback");
+        primaryReads = routed(meterRegistry, "primary-read");
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            writes.increment();
+            return PRIMARY;
+        }
+        if (PrimaryRead.isActive()) {
+            primaryReads.increment();
+            return PRIMARY;
+        }
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            ReplicaPool replica = replicas.get((start + i) % size);
+            if (replica.isHealthy()) {
+                replicaReads.increment();
+                return replica.getName();
+            }
+        }
+        fallbackReads.increment();
+        return PRIMARY;
+    }
+
+    private static Counter routed(MeterRegistry meterRegistry, String target) {
+        return Counter.builder("shareit.datasource.routing")
+                .tag("target", target)
+                .register(meterRegistry);
+    }
+}
@@ -1,7 +1,11 @@
 package ru.practicum.shareit.exception;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.ConstraintViolationException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
 import org.springframework.validation.FieldError;
@@ -9,14 +13,22 @@ import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 
+import java.sql.SQLException;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 @ControllerAdvice
 @Slf4j
 public class GlobalExceptionHandler {
 
+    private static final String EXCLUSION_VIOLATION_SQL_STATE = "23P01";
+    private static final String UNIQUE_VIOLATION_SQL_STATE = "23505";
+    // PostgreSQL reports both directions as 23503, H2 uses 23506 for a missing parent row
+    private static final Set<String> FOREIGN_KEY_VIOLATION_SQL_STATES = Set.of("23503", "23506");
+    private static final String DELETE = "DELETE";
+
     @ExceptionHandler(NotFoundException.class)
     public ResponseEntity<ErrorResponse> handleNotFoundException(final NotFoundException e) {
         log.warn("Not found exception: {}", e.getMessage());
@@ -35,6 +47,38 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(new ErrorResponse(e.getMessage()), HttpStatus.CONFLICT);
     }
 
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<ErrorResponse> handleDataIntegrityViolationException(final DataIntegrityViolationException e,
+                                                                               final HttpServletRequest request) {
+        log.warn("Data integrity violation: {}", e.getMostSpecificCause().getMessage());
+        String sqlState = sqlState(e);
+        if (EXCLUSION_VIOLATION_SQL_STATE.equals(sqlState)) {
+            return new ResponseEntity<>(new ErrorResponse("Item is already booked for an overlapping period"),
+                    HttpStatus.CONFLICT);
+        }
+        if (UNIQUE_VIOLATION_SQL_STATE.equals(sqlState)) {
+            return new ResponseEntity<>(new ErrorResponse("Request conflicts with existing data"), HttpStatus.CONFLICT);
+        }
+        if (sqlState != null && FOREIGN_KEY_VIOLATION_SQL_STATES.contains(sqlState)) {
+            // The SQLState does not say which side of the key failed; the operation does. A delete can only be
+            // blocked by rows that still reference it, any other write can only point at a row that is gone.
+            if (DELETE.equals(request.getMethod())) {
+                return new ResponseEntity<>(new ErrorResponse("Resource is still referenced by other data"),
+                        HttpStatus.CONFLICT);
+            }
+            return new ResponseEntity<>(new ErrorResponse("Referenced resource not found"), HttpStatus.NOT_FOUND);
+        }
+        return new ResponseEntity<>(new ErrorResponse("Request violates a data constraint"), HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    public ResponseEntity<ErrorResponse> handleOptimisticLockingFailureException(
+            final ObjectOptimisticLockingFailureException e) {
+        log.warn("Optimistic locking failure: {}", e.getMessage());
+        return new ResponseEntity<>(new ErrorResponse("Resource was modified concurrently, please retry"),
+                HttpStatus.CONFLICT);
+    }
+
     @ExceptionHandler(ForbiddenException.class)
     public ResponseEntity<ErrorResponse> handleForbiddenException(final ForbiddenException e) {
         log.warn("Forbidden exception: {}", e.getMessage());
@@ -53,9 +97,24 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errors, HttpStatus.BAD_REQUEST);
     }
 
+    @ExceptionHandler(ConstraintViolationException.class)
+    public ResponseEntity<ErrorResponse> handleConstraintViolationException(final ConstraintViolationException e) {
+        log.warn("Constraint violation: {}", e.getMessage());
+        return new ResponseEntity<>(new ErrorResponse(e.getMessage()), HttpStatus.BAD_REQUEST);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ErrorResponse> handleException(final Exception e) {
         log.error("Internal server error: {}", e.getMessage(), e);
         return new ResponseEntity<>(new ErrorResponse("Internal server error: " + e.getMessage()), HttpStatus.INTERNAL_SERVER_ERROR);
     }
+
+    private static String sqlState(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sqlException && sqlException.getSQLState() != null) {
+                return sqlException.getSQLState();
+            }
+        }
+        return null;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,21 @@
+package ru.practicum.shareit.item;
+
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Embeddable
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingPointer {
+    private Long bookingId;
+    private Long bookerId;
+    private LocalDateTime start;
+    private LocalDateTime end;
+}
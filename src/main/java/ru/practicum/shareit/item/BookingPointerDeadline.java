@@ -0,0 +1,10 @@
+package ru.practicum.shareit.item;
+
+import java.time.LocalDateTime;
+
+public interface BookingPointerDeadline {
+
+    Long getId();
+
+    LocalDateTime getValidUntil();
+}
@@ -0,0 +1,49 @@
+package ru.practicum.shareit.item;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+class BookingPointerWheel {
+
+    private final long tickMillis;
+    private final List<Map<Long, Long>> slots;
+    private volatile long lastTick;
+
+    BookingPointerWheel(Duration tick, int slotCount, Instant now) {
+        this.tickMillis = tick.toMillis();
+        this.slots = new ArrayList<>(slotCount);
+        for (int i = 0; i < slotCount; i++) {
+            slots.add(new ConcurrentHashMap<>());
+        }
+        this.lastTick = tickOf(now);
+    }
+
+    void schedule(Long itemId, Instant deadline) {
+        long tick = Math.max(tickOf(deadline), lastTick + 1);
+        slots.get((int) Math.floorMod(tick, (long) slots.size())).merge(itemId, tick, Math::min);
+    }
+
+    synchronized List<Long> advance(Instant now) {
+        long currentTick = tickOf(now);
+        List<Long> due = new ArrayList<>();
+        long from = Math.max(lastTick + 1, currentTick - slots.size() + 1);
+        for (long tick = from; tick <= currentTick; tick++) {
+            Map<Long, Long> slot = slots.get((int) Math.floorMod(tick, (long) slots.size()));
+            for (Map.Entry<Long, Long> entry : slot.entrySet()) {
+                if (entry.getValue() <= currentTick && slot.remove(entry.getKey(), entry.getValue())) {
+                    due.add(entry.getKey());
+                }
+            }
+        }
+        lastTick = Math.max(lastTick, currentTick);
+        return due;
+    }
+
+    private long tickOf(Instant instant) {
+        return Math.floorDiv(instant.toEpochMilli(), tickMillis);
+    }
+}
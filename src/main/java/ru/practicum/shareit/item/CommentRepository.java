@@ -12,7 +12,7 @@ public interface CommentRepository extends JpaRepository<Comment, Long> {
 
     List<Comment> findByItem_IdIn(List<Long> itemIds);
 
-    @Query("SELECT c FROM Comment c WHERE c.item.id IN :itemIds")
+    @Query("SELECT c FROM Comment c JOIN FETCH c.item JOIN FETCH c.author WHERE c.item.id IN :itemIds")
     List<Comment> findCommentsForItemsInList(
             @Param("itemIds") List<Long> itemIds
     );
@@ -2,14 +2,22 @@ package ru.practicum.shareit.item;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
 import ru.practicum.shareit.booking.Booking;
 import ru.practicum.shareit.user.User;
 
+import java.time.LocalDateTime;
 import java.util.Set;
 import java.util.HashSet;
 
 @Entity
 @Table(name = "items")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "items")
+// Entity updates write only changed columns, so they cannot overwrite booking pointers refreshed in bulk meanwhile
+@DynamicUpdate
 @Getter
 @Setter
 @Builder
@@ -37,9 +45,33 @@ public class Item {
     @Column(name = "request_id")
     private Long requestId;
 
+    @Embedded
+    @AttributeOverride(name = "bookingId", column = @Column(name = "last_booking_id"))
+    @AttributeOverride(name = "bookerId", column = @Column(name = "last_booking_booker_id"))
+    @AttributeOverride(name = "start", column = @Column(name = "last_booking_start"))
+    @AttributeOverride(name = "end", column = @Column(name = "last_booking_end"))
+    private BookingPointer lastBooking;
+
+    @Embedded
+    @AttributeOverride(name = "bookingId", column = @Column(name = "next_booking_id"))
+    @AttributeOverride(name = "bookerId", column = @Column(name = "next_booking_booker_id"))
+    @AttributeOverride(name = "start", column = @Column(name = "next_booking_start"))
+    @AttributeOverride(name = "end", column = @Column(name = "next_booking_end"))
+    private BookingPointer nextBooking;
+
+    @Column(name = "booking_pointers_refreshed_at")
+    private LocalDateTime bookingPointersRefreshedAt;
+
+    @Column(name = "booking_pointers_valid_until")
+    private LocalDateTime bookingPointersValidUntil;
+
+    @Version
+    private Long version;
+
     @OneToMany(mappedBy = "item", fetch = FetchType.LAZY)
     private Set<Booking> bookings = new HashSet<>();
 
     @OneToMany(mappedBy = "item", fetch = FetchType.LAZY, cascade = CascadeType.ALL)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "item-comments")
     private Set<Comment> comments = new HashSet<>();
 }
\ No newline at end of file
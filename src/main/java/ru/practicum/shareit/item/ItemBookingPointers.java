@@ -0,0 +1,202 @@
+package ru.practicum.shareit.item;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingEvent;
+import ru.practicum.shareit.booking.BookingEventType;
+import ru.practicum.shareit.booking.BookingRepository;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Component
+public class ItemBookingPointers {
+
+    private static final int BATCH_SIZE = 500;
+
+    private final ItemRepository itemRepository;
+    private final BookingRepository bookingRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final BookingPointerWheel wheel;
+    private final int sweepLimit;
+    private volatile long sweepCursor;
+
+    public ItemBookingPointers(ItemRepository itemRepository,
+                               BookingRepository bookingRepository,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${shareit.booking-pointers.tick:PT1S}") Duration tick,
+                               @Value("${shareit.booking-pointers.wheel-slots:3600}") int wheelSlots,
+                               @Value("${shareit.booking-pointers.sweep-limit:5000}") int sweepLimit) {
+        this.itemRepository = itemRepository;
+        this.bookingRepository = bookingRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.wheel = new BookingPointerWheel(tick, wheelSlots, Instant.now());
+        this.sweepLimit = sweepLimit;
+    }
+
+    public static boolean isFresh(Item item, LocalDateTime now) {
+        return isFresh(item.getBookingPointersRefreshedAt(), item.getBookingPointersValidUntil(), now);
+    }
+
+    public static boolean isFresh(LocalDateTime refreshedAt, LocalDateTime validUntil, LocalDateTime now) {
+        return refreshedAt != null && (validUntil == null || validUntil.isAfter(now));
+    }
+
+    /**
+     * Collects the items of approved bookings while the transaction runs and refreshes them together before it
+     * commits, so a batch decision costs the same handful of lookups whether it touches one item or many.
+     */
+    @EventListener
+    public void onBookingEvent(BookingEvent event) {
+        if (event.getType() != BookingEventType.APPROVED) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            refreshInNewTransaction(List.of(event.getItemId()));
+            return;
+        }
+        pendingInTransaction().add(event.getItemId());
+    }
+
+    @SuppressWarnings("unchecked")
+    private Set<Long> pendingInTransaction() {
+        Set<Long> pending = (Set<Long>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            Set<Long> itemIds = new TreeSet<>();
+            TransactionSynchronizationManager.bindResource(this, itemIds);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    refresh(itemIds);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(ItemBookingPointers.this);
+                }
+            });
+            pending = itemIds;
+        }
+        return pending;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadSchedule() {
+        LocalDateTime now = LocalDateTime.now();
+        long lastId = 0L;
+        int scheduled = 0;
+        List<BookingPointerDeadline> batch;
+        do {
+            batch = itemRepository.findBookingPointerDeadlines(lastId, now, PageRequest.ofSize(BATCH_SIZE));
+            for (BookingPointerDeadline deadline : batch) {
+                wheel.schedule(deadline.getId(), toInstant(deadline.getValidUntil()));
+                lastId = deadline.getId();
+            }
+            scheduled += batch.size();
+        } while (batch.size() == BATCH_SIZE);
+        log.info("Scheduled {} item booking pointer refreshes", scheduled);
+    }
+
+    @Scheduled(fixedRateString = "${shareit.booking-pointers.tick:PT1S}")
+    public void tick() {
+        for (Long itemId : wheel.advance(Instant.now())) {
+            refreshInNewTransaction(List.of(itemId));
+        }
+    }
+
+    /**
+     * Refreshes at most {@code sweep-limit} stale items per run, resuming after the last id of the previous run,
+     * so a large backlog is worked off in chunks on the scheduler thread rather than in one pass.
+     */
+    @Scheduled(fixedDelayString = "${shareit.booking-pointers.sweep-interval:PT5M}",
+            initialDelayString = "${shareit.booking-pointers.sweep-initial-delay:PT30S}")
+    public void sweep() {
+        LocalDateTime now = LocalDateTime.now();
+        long lastId = sweepCursor;
+        int refreshed = 0;
+        List<Long> batch;
+        do {
+            int size = Math.min(BATCH_SIZE, sweepLimit - refreshed);
+            batch = itemRepository.findIdsWithStaleBookingPointers(lastId, now, PageRequest.ofSize(size));
+            for (Long itemId : batch) {
+                refreshInNewTransaction(List.of(itemId));
+                lastId = itemId;
+            }
+            refreshed += batch.size();
+            if (batch.size() < size) {
+                lastId = 0L;
+                break;
+            }
+        } while (refreshed < sweepLimit);
+        sweepCursor = lastId;
+        if (refreshed > 0) {
+            log.info("Refreshed stale booking pointers of {} items", refreshed);
+        }
+    }
+
+    private void refreshInNewTransaction(Collection<Long> itemIds) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> refresh(itemIds));
+        } catch (RuntimeException e) {
+            log.warn("Could not refresh booking pointers of items {}: {}", itemIds, e.getMessage());
+        }
+    }
+
+    private void refresh(Collection<Long> itemIds) {
+        List<Long> locked = itemRepository.lockIdsByIds(itemIds);
+        if (locked.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, Booking> lastBookings = bookingRepository.findLastApprovedBookingsForItems(locked, now).stream()
+                .collect(Collectors.toMap(booking -> booking.getItem().getId(), Function.identity()));
+        Map<Long, Booking> nextBookings = bookingRepository.findNextApprovedBookingsForItems(locked, now).stream()
+                .collect(Collectors.toMap(booking -> booking.getItem().getId(), Function.identity()));
+        Map<Long, LocalDateTime> nextEnds = bookingRepository.findEarliestApprovedEndsForItems(locked, now).stream()
+                .collect(Collectors.toMap(BookingPointerDeadline::getId, BookingPointerDeadline::getValidUntil));
+
+        for (Long itemId : locked) {
+            Booking next = nextBookings.get(itemId);
+            LocalDateTime validUntil = nextEnds.get(itemId);
+            if (next != null && (validUntil == null || next.getStart().isBefore(validUntil))) {
+                validUntil = next.getStart();
+            }
+            itemRepository.updateBookingPointers(itemId, toPointer(lastBookings.get(itemId)), toPointer(next), now,
+                    validUntil);
+            if (validUntil != null) {
+                wheel.schedule(itemId, toInstant(validUntil));
+            }
+        }
+    }
+
+    private static BookingPointer toPointer(Booking booking) {
+        if (booking == null) {
+            return null;
+        }
+        return new BookingPointer(booking.getId(), booking.getBooker().getId(), booking.getStart(), booking.getEnd());
+    }
+
+    private static Instant toInstant(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant();
+    }
+}
@@ -1,14 +1,20 @@
 package ru.practicum.shareit.item;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import ru.practicum.shareit.metrics.QueryBudget;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -36,20 +42,40 @@ public class ItemController {
     }
 
     @GetMapping("/{itemId}")
+    @QueryBudget(5)
     public ResponseEntity<ItemDto> getItemById(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                               @PathVariable Long itemId) {
+                                               @PathVariable Long itemId,
+                                               WebRequest request) {
+        String eTag = itemService.getItemETag(itemId, userId);
+        if (eTag != null && request.checkNotModified(eTag)) {
+            return null;
+        }
         return ResponseEntity.ok(itemService.getItemById(itemId, userId));
     }
 
+    @GetMapping("/{itemId}/availability")
+    public ResponseEntity<List<AvailabilityWindowDto>> getAvailability(
+            @PathVariable Long itemId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return ResponseEntity.ok(itemService.getAvailability(itemId, from, to));
+    }
+
     @GetMapping
-    public ResponseEntity<List<ItemDto>> getAllItemsByUserId(@RequestHeader("X-Sharer-User-Id") Long userId) {
-        return ResponseEntity.ok(itemService.getAllItemsByUserId(userId));
+    @QueryBudget(5)
+    public ResponseEntity<List<ItemDto>> getAllItemsByUserId(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                             @RequestParam(defaultValue = "0") @PositiveOrZero int from,
+                                                             @RequestParam(defaultValue = "100") @Positive int size) {
+        return ResponseEntity.ok(itemService.getAllItemsByUserId(userId, from, size));
     }
 
     @GetMapping("/search")
-    public ResponseEntity<List<ItemDto>> searchItems(@RequestParam String text) {
+    @QueryBudget(1)
+    public ResponseEntity<List<ItemDto>> searchItems(@RequestParam String text,
+                                                     @RequestParam(defaultValue = "0") @PositiveOrZero int from,
+                                                     @RequestParam(defaultValue = "100") @Positive int size) {
         log.info("Searching items containing text: {}", text);
-        List<Item> items = itemService.searchItems(text);
+        List<Item> items = itemService.searchItems(text, from, size);
         return new ResponseEntity<>(items.stream()
                 .map(itemMapper::toItemDto)
                 .collect(Collectors.toList()),
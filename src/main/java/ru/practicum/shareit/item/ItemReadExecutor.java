@@ -0,0 +1,76 @@
+package ru.practicum.shareit.item;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.metrics.SqlStatementCounter;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.function.Supplier;
+
+@Slf4j
+@Component
+public class ItemReadExecutor implements DisposableBean {
+
+    private final TransactionTemplate readOnlyTransaction;
+    private final AsyncTaskExecutor executor;
+
+    public ItemReadExecutor(PlatformTransactionManager transactionManager,
+                            SqlStatementCounter sqlStatementCounter,
+                            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+                            @Value("${shareit.item-read.max-concurrency:32}") int maxConcurrency) {
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+
+        if (virtualThreads) {
+            SimpleAsyncTaskExecutor virtualExecutor = new SimpleAsyncTaskExecutor("item-read-");
+            virtualExecutor.setVirtualThreads(true);
+            virtualExecutor.setConcurrencyLimit(maxConcurrency);
+            virtualExecutor.setTaskDecorator(sqlStatementCounter::propagate);
+            this.executor = virtualExecutor;
+        } else {
+            ThreadPoolTaskExecutor pool = new ThreadPoolTaskExecutor();
+            pool.setThreadNamePrefix("item-read-");
+            pool.setCorePoolSize(maxConcurrency);
+            pool.setMaxPoolSize(maxConcurrency);
+            pool.setQueueCapacity(maxConcurrency * 16);
+            // A burst past the queue runs its reads on the request thread instead of failing the request
+            pool.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+            pool.setTaskDecorator(sqlStatementCounter::propagate);
+            pool.initialize();
+            this.executor = pool;
+        }
+    }
+
+    public <T> CompletableFuture<T> submit(Supplier<T> query) {
+        return CompletableFuture.supplyAsync(() -> readOnlyTransaction.execute(status -> query.get()), executor);
+    }
+
+    public <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (executor instanceof ThreadPoolTaskExecutor pool) {
+            pool.shutdown();
+        } else if (executor instanceof SimpleAsyncTaskExecutor virtualExecutor) {
+            virtualExecutor.close();
+        }
+    }
+}
@@ -1,19 +1,77 @@
 package ru.practicum.shareit.item;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
 
     List<Item> findByOwnerId(Long ownerId);
 
-    @Query("SELECT i FROM Item i LEFT JOIN FETCH i.bookings LEFT JOIN FETCH i.comments WHERE upper(i.name) LIKE upper(concat('%', :text, '%')) OR upper(i.description) LIKE upper(concat('%', :text, '%'))")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<Item> findByOwnerId(Long ownerId, Pageable pageable);
+
+    @Query("SELECT i FROM Item i WHERE upper(i.name) LIKE upper(concat('%', :text, '%')) ESCAPE '\\' OR upper(i.description) LIKE upper(concat('%', :text, '%')) ESCAPE '\\'")
     List<Item> findByNameContainingIgnoreCaseOrDescriptionContainingIgnoreCase(@Param("text") String text, @Param("text") String text1);
 
+    @Query(value = "SELECT i.* FROM items i "
+            + "WHERE i.available AND (i.search_vector @@ plainto_tsquery('simple', :text) "
+            + "OR i.name ILIKE '%' || :pattern || '%' ESCAPE '\\' "
+            + "OR i.description ILIKE '%' || :pattern || '%' ESCAPE '\\') "
+            + "ORDER BY ts_rank(i.search_vector, plainto_tsquery('simple', :text)) DESC, "
+            + "greatest(similarity(i.name, :text), similarity(i.description, :text)) DESC, i.id "
+            + "LIMIT :limit OFFSET :offset", nativeQuery = true)
+    List<Item> searchAvailableRanked(@Param("text") String text, @Param("pattern") String pattern,
+                                     @Param("limit") int limit, @Param("offset") int offset);
+
     List<Item> findByAvailableTrueAndOwnerId(Long ownerId);
 
     List<Item> findByRequestId(Long requestId);
+
+    List<Item> findByRequestIdIn(Collection<Long> requestIds);
+
+    @Query("SELECT i.version AS version, i.owner.id AS ownerId, "
+            + "(SELECT MAX(c.id) FROM Comment c WHERE c.item = i) AS latestCommentId, "
+            + "i.bookingPointersRefreshedAt AS bookingPointersRefreshedAt, "
+            + "i.bookingPointersValidUntil AS bookingPointersValidUntil FROM Item i WHERE i.id = :itemId")
+    Optional<ItemVersionView> findVersionById(@Param("itemId") Long itemId);
+
+    // Locks in id order so that two refreshes of overlapping item sets cannot deadlock each other
+    @Query(value = "SELECT id FROM items WHERE id IN (:itemIds) ORDER BY id FOR UPDATE", nativeQuery = true)
+    List<Long> lockIdsByIds(@Param("itemIds") Collection<Long> itemIds);
+
+    // A bulk update leaves the version alone, so a pointer refresh never fails a concurrent updateItem
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Item i SET i.lastBooking.bookingId = :#{#last?.bookingId}, "
+            + "i.lastBooking.bookerId = :#{#last?.bookerId}, i.lastBooking.start = :#{#last?.start}, "
+            + "i.lastBooking.end = :#{#last?.end}, i.nextBooking.bookingId = :#{#next?.bookingId}, "
+            + "i.nextBooking.bookerId = :#{#next?.bookerId}, i.nextBooking.start = :#{#next?.start}, "
+            + "i.nextBooking.end = :#{#next?.end}, i.bookingPointersRefreshedAt = :refreshedAt, "
+            + "i.bookingPointersValidUntil = :validUntil WHERE i.id = :itemId")
+    int updateBookingPointers(@Param("itemId") Long itemId, @Param("last") BookingPointer last,
+                              @Param("next") BookingPointer next, @Param("refreshedAt") LocalDateTime refreshedAt,
+                              @Param("validUntil") LocalDateTime validUntil);
+
+    @Query("SELECT i.id FROM Item i WHERE i.id > :afterId AND (i.bookingPointersRefreshedAt IS NULL "
+            + "OR i.bookingPointersValidUntil <= :now) ORDER BY i.id")
+    List<Long> findIdsWithStaleBookingPointers(@Param("afterId") Long afterId, @Param("now") LocalDateTime now,
+                                               Pageable pageable);
+
+    @Query("SELECT i.id AS id, i.bookingPointersValidUntil AS validUntil FROM Item i "
+            + "WHERE i.id > :afterId AND i.bookingPointersValidUntil > :now ORDER BY i.id")
+    List<BookingPointerDeadline> findBookingPointerDeadlines(@Param("afterId") Long afterId,
+                                                             @Param("now") LocalDateTime now, Pageable pageable);
+
+    @Query("SELECT i FROM Item i WHERE i.id > :afterId ORDER BY i.id")
+    List<Item> findBatchAfterId(@Param("afterId") Long afterId, Pageable pageable);
 }
\ No newline at end of file
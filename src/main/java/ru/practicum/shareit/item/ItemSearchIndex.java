@@ -0,0 +1,306 @@
+package ru.practicum.shareit.item;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.cluster.InvalidationEvent;
+import ru.practicum.shareit.cluster.InvalidationRegion;
+import ru.practicum.shareit.datasource.PrimaryRead;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * In-memory trigram index over item names and descriptions. Changes are applied after commit from
+ * {@link InvalidationEvent}s by reloading the item. A full {@link #rebuild()} loads a fresh index off the listener
+ * thread and swaps it in whole, so items gone from the database go with it; changes applied while it loads are
+ * replayed onto it before the swap. Tombstones of deleted ids keep a reload that read the row before the delete
+ * from putting it back, and expire after {@code shareit.item-search.tombstone-ttl}.
+ */
+@Slf4j
+@Component
+public class ItemSearchIndex implements DisposableBean {
+
+    private static final int GRAM_SIZE = 3;
+    private static final int LOAD_BATCH_SIZE = 1000;
+
+    private final ItemRepository itemRepository;
+    private final ItemSearchBackend backend;
+    private final Duration tombstoneTtl;
+    private final ThreadPoolTaskExecutor rebuilder;
+
+    private volatile Snapshot snapshot = new Snapshot();
+    private final Map<Long, Long> removed = new ConcurrentHashMap<>();
+    private final AtomicBoolean rebuildRequested = new AtomicBoolean();
+    private final Object rebuildLock = new Object();
+    // Ids indexed or removed while a rebuild loads; null when none runs. Guarded by this.
+    private Set<Long> changedDuringRebuild;
+    private volatile boolean ready;
+
+    public ItemSearchIndex(ItemRepository itemRepository,
+                           @Value("${shareit.item-search.backend:INDEX}") ItemSearchBackend backend,
+                           @Value("${shareit.item-search.tombstone-ttl:PT10M}") Duration tombstoneTtl) {
+        this.itemRepository = itemRepository;
+        this.backend = backend;
+        this.tombstoneTtl = tombstoneTtl;
+        rebuilder = new ThreadPoolTaskExecutor();
+        rebuilder.setThreadNamePrefix("item-search-rebuild-");
+        rebuilder.setCorePoolSize(1);
+        rebuilder.setMaxPoolSize(1);
+        rebuilder.initialize();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void requestRebuild() {
+        if (backend == ItemSearchBackend.INDEX && rebuildRequested.compareAndSet(false, true)) {
+            rebuilder.execute(this::rebuild);
+        }
+    }
+
+    public void rebuild() {
+        if (backend != ItemSearchBackend.INDEX) {
+            return;
+        }
+        // A caller's synchronous rebuild waits for a queued one instead of interleaving with it
+        synchronized (rebuildLock) {
+            rebuildExclusively();
+        }
+    }
+
+    private void rebuildExclusively() {
+        // Requests arriving from here on need another pass, since this one may already be past their change
+        rebuildRequested.set(false);
+        log.info("Building item search index");
+        synchronized (this) {
+            changedDuringRebuild = new HashSet<>();
+        }
+        Snapshot fresh = new Snapshot();
+        try {
+            long lastId = 0L;
+            List<Item> batch;
+            do {
+                long afterId = lastId;
+                batch = PrimaryRead.call(() -> itemRepository.findBatchAfterId(afterId,
+                        PageRequest.ofSize(LOAD_BATCH_SIZE)));
+                for (Item item : batch) {
+                    if (!removed.containsKey(item.getId())) {
+                        fresh.put(toIndexed(item));
+                    }
+                    lastId = item.getId();
+                }
+            } while (batch.size() == LOAD_BATCH_SIZE);
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                changedDuringRebuild = null;
+            }
+            log.warn("Item search index rebuild failed, keeping the current index", e);
+            return;
+        }
+        synchronized (this) {
+            Snapshot current = snapshot;
+            for (Long itemId : changedDuringRebuild) {
+                IndexedItem indexed = current.items.get(itemId);
+                if (indexed == null) {
+                    fresh.remove(itemId);
+                } else {
+                    fresh.put(indexed);
+                }
+            }
+            changedDuringRebuild = null;
+            snapshot = fresh;
+        }
+        ready = true;
+        log.info("Item search index built: {} items, {} grams", fresh.items.size(), fresh.postings.size());
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onInvalidation(InvalidationEvent event) {
+        if (backend != ItemSearchBackend.INDEX || event.getRegion() != InvalidationRegion.ITEM) {
+            return;
+        }
+        if (event.isRegionWide()) {
+            requestRebuild();
+            return;
+        }
+        Long itemId = event.getKey();
+        // Only the primary is sure to have the commit behind this event; a replica's missing row is no deletion
+        PrimaryRead.call(() -> itemRepository.findById(itemId)).ifPresentOrElse(this::index, () -> remove(itemId));
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.item-search.tombstone-ttl:PT10M}")
+    public void expireTombstones() {
+        long expiredBefore = System.currentTimeMillis() - tombstoneTtl.toMillis();
+        removed.values().removeIf(removedAt -> removedAt < expiredBefore);
+    }
+
+    synchronized void index(Item item) {
+        if (removed.containsKey(item.getId())) {
+            return;
+        }
+        snapshot.put(toIndexed(item));
+        if (changedDuringRebuild != null) {
+            changedDuringRebuild.add(item.getId());
+        }
+    }
+
+    synchronized void remove(Long itemId) {
+        removed.put(itemId, System.currentTimeMillis());
+        snapshot.remove(itemId);
+        if (changedDuringRebuild != null) {
+            changedDuringRebuild.add(itemId);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        rebuilder.shutdown();
+    }
+
+    public List<Item> searchAvailable(String text) {
+        String query = normalize(text);
+        if (query.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        Snapshot current = snapshot;
+        Collection<Long> candidates = query.length() < GRAM_SIZE
+                ? current.items.keySet()
+                : current.rarestPosting(query);
+        List<Item> result = new ArrayList<>();
+        for (Long id : candidates) {
+            IndexedItem indexed = current.items.get(id);
+            if (indexed != null && indexed.isAvailable() && indexed.matches(query)) {
+                result.add(indexed.toItem());
+            }
+        }
+        result.sort(Comparator.comparing(Item::getId));
+        return result;
+    }
+
+    private static IndexedItem toIndexed(Item item) {
+        return new IndexedItem(item.getId(), item.getVersion(), item.getName(), item.getDescription(),
+                Boolean.TRUE.equals(item.getAvailable()), item.getRequestId(),
+                normalize(item.getName()), normalize(item.getDescription()));
+    }
+
+    private static Set<String> grams(IndexedItem indexed) {
+        Set<String> grams = new HashSet<>();
+        addGrams(indexed.getNormalizedName(), grams);
+        addGrams(indexed.getNormalizedDescription(), grams);
+        return grams;
+    }
+
+    private static void addGrams(String text, Set<String> grams) {
+        for (int i = 0; i + GRAM_SIZE <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM_SIZE));
+        }
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * One generation of the index. Searches read whichever generation is current; writers change it under the
+     * index's lock, and a rebuild fills a new one privately before swapping it in.
+     */
+    private static class Snapshot {
+        final Map<Long, IndexedItem> items = new ConcurrentHashMap<>();
+        final Map<String, Set<Long>> postings = new ConcurrentHashMap<>();
+
+        void put(IndexedItem indexed) {
+            IndexedItem previous = items.get(indexed.getId());
+            if (previous != null && indexed.getVersion() != null && previous.getVersion() != null
+                    && previous.getVersion() > indexed.getVersion()) {
+                return;
+            }
+            items.put(indexed.getId(), indexed);
+            if (previous != null) {
+                Set<String> stale = grams(previous);
+                stale.removeAll(grams(indexed));
+                unlink(indexed.getId(), stale);
+            }
+            for (String gram : grams(indexed)) {
+                postings.computeIfAbsent(gram, key -> ConcurrentHashMap.newKeySet()).add(indexed.getId());
+            }
+        }
+
+        void remove(Long itemId) {
+            IndexedItem previous = items.remove(itemId);
+            if (previous != null) {
+                unlink(itemId, grams(previous));
+            }
+        }
+
+        Collection<Long> rarestPosting(String query) {
+            Set<Long> rarest = null;
+            for (int i = 0; i + GRAM_SIZE <= query.length(); i++) {
+                Set<Long> posting = postings.get(query.substring(i, i + GRAM_SIZE));
+                if (posting == null) {
+                    return Collections.emptySet();
+                }
+                if (rarest == null || posting.size() < rarest.size()) {
+                    rarest = posting;
+                }
+            }
+            return rarest;
+        }
+
+        private void unlink(Long itemId, Set<String> grams) {
+            for (String gram : grams) {
+                postings.computeIfPresent(gram, (key, ids) -> {
+                    ids.remove(itemId);
+                    return ids.isEmpty() ? null : ids;
+                });
+            }
+        }
+    }
+
+    @lombok.Value
+    private static class IndexedItem {
+        Long id;
+        Long version;
+        String name;
+        String description;
+        boolean available;
+        Long requestId;
+        String normalizedName;
+        String normalizedDescription;
+
+        boolean matches(String query) {
+            return normalizedName.contains(query) || normalizedDescription.contains(query);
+        }
+
+        Item toItem() {
+            Item item = new Item();
+            item.setId(id);
+            item.setName(name);
+            item.setDescription(description);
+            item.setAvailable(available);
+            item.setRequestId(requestId);
+            return item;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package ru.practicum.shareit.item;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ItemService {
@@ -10,11 +11,15 @@ public interface ItemService {
 
     ItemDto getItemById(Long itemId, Long userId);
 
-    List<ItemDto> getAllItemsByUserId(Long userId);
+    String getItemETag(Long itemId, Long userId);
+
+    List<ItemDto> getAllItemsByUserId(Long userId, int from, int size);
 
     void deleteItem(Long userId, Long itemId);
 
     CommentDto addComment(Long itemId, Long userId, CommentDto commentDto);
 
-    List<Item> searchItems(String text);
+    List<AvailabilityWindowDto> getAvailability(Long itemId, LocalDateTime from, LocalDateTime to);
+
+    List<Item> searchItems(String text, int from, int size);
 }
\ No newline at end of file
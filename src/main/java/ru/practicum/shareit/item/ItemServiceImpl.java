@@ -2,24 +2,36 @@ package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingDto;
+import ru.practicum.shareit.booking.BookingIntervalIndex;
 import ru.practicum.shareit.booking.BookingMapper;
 import ru.practicum.shareit.booking.BookingRepository;
 import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.cluster.InvalidationEvent;
+import ru.practicum.shareit.cluster.InvalidationRegion;
 import ru.practicum.shareit.exception.ForbiddenException;
 import ru.practicum.shareit.exception.ItemNotFoundException;
 import ru.practicum.shareit.exception.UserNotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.pagination.OffsetPageRequest;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.UserService;
 
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.Collections;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -30,19 +42,32 @@ public class ItemServiceImpl implements ItemService {
 
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
+    private final UserService userService;
     private final BookingRepository bookingRepository;
     private final ItemMapper itemMapper;
     private final BookingMapper bookingMapper;
     private final CommentRepository commentRepository;
+    private final ItemSearchIndex itemSearchIndex;
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final ItemReadExecutor itemReadExecutor;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${shareit.item-search.backend:INDEX}")
+    private ItemSearchBackend searchBackend;
+
+    @Value("${shareit.item-read.parallel:false}")
+    private boolean parallelReads;
 
     @Override
     @Transactional
     public ItemDto addItem(Long userId, ItemDto itemDto) {
         log.info("Adding item for user with id {}", userId);
-        User owner = userRepository.findById(userId)
-                .orElseThrow(() -> new UserNotFoundException("User with id " + userId + " not found"));
+        userService.getUserById(userId);
+        User owner = userRepository.getReferenceById(userId);
         Item item = itemMapper.toItem(itemDto, owner);
+        item.setBookingPointersRefreshedAt(LocalDateTime.now());
         Item savedItem = itemRepository.save(item);
+        eventPublisher.publishEvent(InvalidationEvent.of(InvalidationRegion.ITEM, savedItem.getId()));
         return itemMapper.toItemDto(savedItem);
     }
 
@@ -70,93 +95,174 @@ public class ItemServiceImpl implements ItemService {
         }
 
         Item updatedItem = itemRepository.save(existingItem);
+        eventPublisher.publishEvent(InvalidationEvent.of(InvalidationRegion.ITEM, itemId));
         return itemMapper.toItemDto(updatedItem);
     }
 
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public List<AvailabilityWindowDto> getAvailability(Long itemId, LocalDateTime from, LocalDateTime to) {
+        log.info("Getting availability of item {} between {} and {}", itemId, from, to);
+        if (!from.isBefore(to)) {
+            throw new ValidationException("Availability range start must be before its end");
+        }
+        if (!bookingIntervalIndex.isCached(itemId) && !itemRepository.existsById(itemId)) {
+            throw new ItemNotFoundException("Item with id " + itemId + " not found");
+        }
+        return bookingIntervalIndex.freeWindows(itemId, from, to);
+    }
+
     @Override
     @Transactional(readOnly = true)
-    public List<Item> searchItems(String text) {
-        log.info("Searching items containing text: {}", text);
+    public List<Item> searchItems(String text, int from, int size) {
+        log.info("Searching items containing text: {} (backend {}, from {}, size {})", text, searchBackend, from, size);
 
         if (text == null || text.isBlank()) {
             return Collections.emptyList();
         }
 
-        List<Item> foundItems = itemRepository.findByNameContainingIgnoreCaseOrDescriptionContainingIgnoreCase(text, text);
-
-        List<Item> availableItems = foundItems.stream()
-                .filter(Item::getAvailable)
-                .collect(Collectors.toList());
-
-        if (availableItems.isEmpty()) {
-            return Collections.emptyList();
+        switch (searchBackend) {
+            case FULL_TEXT:
+                return itemRepository.searchAvailableRanked(text, likePattern(text), size, from);
+            case INDEX:
+                if (itemSearchIndex.isReady()) {
+                    return paginate(itemSearchIndex.searchAvailable(text), from, size);
+                }
+                break;
+            default:
+                break;
         }
 
-        List<Long> itemIds = availableItems.stream()
-                .map(Item::getId)
-                .collect(Collectors.toList());
-
-        List<Booking> allBookings = bookingRepository.findBookingsForItemsInList(itemIds, BookingStatus.APPROVED);
-
-        List<Comment> allComments = commentRepository.findCommentsForItemsInList(itemIds);
-
-        Map<Long, List<Booking>> bookingsMap = allBookings.stream()
-                .collect(Collectors.groupingBy(booking -> booking.getItem().getId()));
+        String pattern = likePattern(text);
+        List<Item> foundItems = itemRepository.findByNameContainingIgnoreCaseOrDescriptionContainingIgnoreCase(pattern, pattern);
 
-        Map<Long, List<Comment>> commentsMap = allComments.stream()
-                .collect(Collectors.groupingBy(comment -> comment.getItem().getId()));
-
-        for (Item item : availableItems) {
-            List<Booking> bookingsForThisItem = bookingsMap.getOrDefault(item.getId(), Collections.emptyList());
-            List<Comment> commentsForThisItem = commentsMap.getOrDefault(item.getId(), Collections.emptyList());
-            if (item.getComments() == null) {
-                item.setComments(new HashSet<>(commentsForThisItem));
-            } else {
-                item.getComments().addAll(commentsForThisItem);
-            }
-        }
-        return availableItems;
+        // Search results carry no comments or bookings, like the FULL_TEXT and INDEX backends
+        return paginate(foundItems.stream()
+                .filter(Item::getAvailable)
+                .collect(Collectors.toList()), from, size);
     }
 
     @Override
-    @Transactional
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public ItemDto getItemById(Long itemId, Long userId) {
         log.info("Getting item with id {} for user {}", itemId, userId);
         Item item = itemRepository.findById(itemId)
                 .orElseThrow(() -> new ItemNotFoundException("Item with id " + itemId + " not found"));
 
         ItemDto itemDto = itemMapper.toItemDto(item);
+        boolean owner = item.getOwner().getId().equals(userId);
+        LocalDateTime now = LocalDateTime.now();
+        boolean queryBookings = owner && !ItemBookingPointers.isFresh(item, now);
+        if (owner && !queryBookings) {
+            itemDto.setLastBooking(bookingMapper.toBookingShortDto(item.getLastBooking(), itemId));
+            itemDto.setNextBooking(bookingMapper.toBookingShortDto(item.getNextBooking(), itemId));
+        }
 
-        if (item.getOwner().getId().equals(userId)) {
-            LocalDateTime now = LocalDateTime.now();
+        if (parallelReads) {
+            CompletableFuture<BookingDto> lastBooking = queryBookings
+                    ? itemReadExecutor.submit(() -> findLastBooking(itemId, now))
+                    : CompletableFuture.completedFuture(itemDto.getLastBooking());
+            CompletableFuture<BookingDto> nextBooking = queryBookings
+                    ? itemReadExecutor.submit(() -> findNextBooking(itemId, now))
+                    : CompletableFuture.completedFuture(itemDto.getNextBooking());
+            CompletableFuture<List<CommentDto>> comments = itemReadExecutor.submit(() -> findComments(itemId));
+
+            itemDto.setLastBooking(itemReadExecutor.join(lastBooking));
+            itemDto.setNextBooking(itemReadExecutor.join(nextBooking));
+            itemDto.setComments(itemReadExecutor.join(comments));
+            return itemDto;
+        }
 
-            Booking lastBooking = bookingRepository.findFirstByItemIdAndStatusAndEndBeforeOrderByEndDesc(itemId, BookingStatus.APPROVED, now)
-                    .orElse(null);
-            Booking nextBooking = bookingRepository.findFirstByItemIdAndStatusAndStartAfterOrderByStartAsc(itemId, BookingStatus.APPROVED, now)
-                    .orElse(null);
+        if (queryBookings) {
+            itemDto.setLastBooking(findLastBooking(itemId, now));
+            itemDto.setNextBooking(findNextBooking(itemId, now));
+        }
+        itemDto.setComments(findComments(itemId));
+        return itemDto;
+    }
 
-            itemDto.setLastBooking(bookingMapper.toBookingShortDto(lastBooking));
-            itemDto.setNextBooking(bookingMapper.toBookingShortDto(nextBooking));
+    @Override
+    public String getItemETag(Long itemId, Long userId) {
+        ItemVersionView version = itemRepository.findVersionById(itemId).orElse(null);
+        if (version == null) {
+            return null;
         }
+        // Comments are added without touching the item, so the newest comment id is part of the tag
+        Long latestCommentId = version.getLatestCommentId();
+        String tag = version.getVersion() + "." + (latestCommentId == null ? 0 : latestCommentId);
+        if (!version.getOwnerId().equals(userId)) {
+            return tag + "-p";
+        }
+        // The owner view embeds last/next booking; only tag it while the stored pointers are current. Pointer
+        // refreshes leave the version alone, so the refresh time is part of the tag
+        LocalDateTime refreshedAt = version.getBookingPointersRefreshedAt();
+        return ItemBookingPointers.isFresh(refreshedAt, version.getBookingPointersValidUntil(), LocalDateTime.now())
+                ? tag + "." + refreshedAt.toInstant(ZoneOffset.UTC).toEpochMilli() + "-o"
+                : null;
+    }
+
+    private BookingDto findLastBooking(Long itemId, LocalDateTime now) {
+        return bookingMapper.toBookingShortDto(bookingRepository
+                .findFirstByItemIdAndStatusAndEndBeforeOrderByEndDesc(itemId, BookingStatus.APPROVED, now)
+                .orElse(null));
+    }
+
+    private BookingDto findNextBooking(Long itemId, LocalDateTime now) {
+        return bookingMapper.toBookingShortDto(bookingRepository
+                .findFirstByItemIdAndStatusAndStartAfterOrderByStartAsc(itemId, BookingStatus.APPROVED, now)
+                .orElse(null));
+    }
 
-        List<CommentDto> comments = item.getComments().stream()
+    private List<CommentDto> findComments(Long itemId) {
+        return commentRepository.findCommentsForItemsInList(List.of(itemId)).stream()
                 .map(this::toCommentDto)
                 .collect(Collectors.toList());
-        itemDto.setComments(comments);
-
-        return itemDto;
     }
 
     @Override
-    @Transactional
-    public List<ItemDto> getAllItemsByUserId(Long userId) {
-        log.info("Getting all items for user with id {}", userId);
-        userRepository.findById(userId)
-                .orElseThrow(() -> new UserNotFoundException("User with id " + userId + " not found"));
-        List<Item> items = itemRepository.findByOwnerId(userId);
+    public List<ItemDto> getAllItemsByUserId(Long userId, int from, int size) {
+        log.info("Getting items for user with id {} (from {}, size {})", userId, from, size);
+        userService.getUserById(userId);
+        List<Item> items = itemRepository.findByOwnerId(userId, OffsetPageRequest.of(from, size, Sort.by("id")));
+        if (items.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<Long> itemIds = items.stream()
+                .map(Item::getId)
+                .collect(Collectors.toList());
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> staleItemIds = items.stream()
+                .filter(item -> !ItemBookingPointers.isFresh(item, now))
+                .map(Item::getId)
+                .collect(Collectors.toList());
+
+        Map<Long, Booking> lastBookings = staleItemIds.isEmpty()
+                ? Map.of()
+                : bookingRepository.findLastApprovedBookingsForItems(staleItemIds, now).stream()
+                        .collect(Collectors.toMap(booking -> booking.getItem().getId(), Function.identity()));
+        Map<Long, Booking> nextBookings = staleItemIds.isEmpty()
+                ? Map.of()
+                : bookingRepository.findNextApprovedBookingsForItems(staleItemIds, now).stream()
+                        .collect(Collectors.toMap(booking -> booking.getItem().getId(), Function.identity()));
+        Map<Long, List<Comment>> comments = commentRepository.findCommentsForItemsInList(itemIds).stream()
+                .collect(Collectors.groupingBy(comment -> comment.getItem().getId()));
 
         return items.stream()
-                .map(itemMapper::toItemDto)
+                .map(item -> {
+                    ItemDto itemDto = itemMapper.toItemDto(item);
+                    if (ItemBookingPointers.isFresh(item, now)) {
+                        itemDto.setLastBooking(bookingMapper.toBookingShortDto(item.getLastBooking(), item.getId()));
+                        itemDto.setNextBooking(bookingMapper.toBookingShortDto(item.getNextBooking(), item.getId()));
+                    } else {
+                        itemDto.setLastBooking(bookingMapper.toBookingShortDto(lastBookings.get(item.getId())));
+                        itemDto.setNextBooking(bookingMapper.toBookingShortDto(nextBookings.get(item.getId())));
+                    }
+                    itemDto.setComments(comments.getOrDefault(item.getId(), Collections.emptyList()).stream()
+                            .map(this::toCommentDto)
+                            .collect(Collectors.toList()));
+                    return itemDto;
+                })
                 .collect(Collectors.toList());
     }
 
@@ -170,6 +276,8 @@ public class ItemServiceImpl implements ItemService {
             throw new ForbiddenException("User " + userId + " is not the owner of item with id " + itemId);
         }
         itemRepository.deleteById(itemId);
+        eventPublisher.publishEvent(InvalidationEvent.of(InvalidationRegion.ITEM, itemId));
+        eventPublisher.publishEvent(InvalidationEvent.of(InvalidationRegion.ITEM_BOOKINGS, itemId));
     }
 
     @Override
@@ -204,6 +312,17 @@ public class ItemServiceImpl implements ItemService {
         return toCommentDto(comment);
     }
 
+    private static String likePattern(String text) {
+        return text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    private static List<Item> paginate(List<Item> items, int from, int size) {
+        if (from >= items.size()) {
+            return Collections.emptyList();
+        }
+        return items.subList(from, (int) Math.min(items.size(), (long) from + size));
+    }
+
     @Transactional
     private CommentDto toCommentDto(Comment comment) {
         if (comment == null || comment.getAuthor() == null) {
@@ -0,0 +1,16 @@
+package ru.practicum.shareit.item;
+
+import java.time.LocalDateTime;
+
+public interface ItemVersionView {
+
+    Long getVersion();
+
+    Long getOwnerId();
+
+    Long getLatestCommentId();
+
+    LocalDateTime getBookingPointersRefreshedAt();
+
+    LocalDateTime getBookingPointersValidUntil();
+}
@@ -0,0 +1,34 @@
+package ru.practicum.shareit.metrics;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Sets the query count header while the response can still take headers; {@link QueryCountFilter} covers
+ * responses without a body. Budgets are checked by {@link QueryBudgetInterceptor} after the response is complete.
+ */
+@ControllerAdvice
+@RequiredArgsConstructor
+public class QueryBudgetAdvice implements ResponseBodyAdvice<Object> {
+
+    private final SqlStatementCounter sqlStatementCounter;
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        response.getHeaders().set(QueryCountFilter.QUERY_COUNT_HEADER, String.valueOf(sqlStatementCounter.current()));
+        return body;
+    }
+}
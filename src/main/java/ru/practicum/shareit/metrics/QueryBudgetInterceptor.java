@@ -0,0 +1,50 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Checks the final statement count of every request against its handler's {@link QueryBudget} once the response
+ * is complete. Overruns are only logged and counted; budgets are enforced by tests, never on live requests.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class QueryBudgetInterceptor implements HandlerInterceptor {
+
+    public static final String STATEMENTS_METRIC = "shareit.http.sql.statements";
+    public static final String EXCEEDED_METRIC = "shareit.http.sql.budget.exceeded";
+
+    private final SqlStatementCounter sqlStatementCounter;
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        if (!(handler instanceof HandlerMethod handlerMethod)) {
+            return;
+        }
+        QueryBudget budget = handlerMethod.getMethodAnnotation(QueryBudget.class);
+        if (budget == null) {
+            return;
+        }
+        int count = sqlStatementCounter.current();
+        String endpoint = request.getMethod() + " " + request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        DistributionSummary.builder(STATEMENTS_METRIC)
+                .tag("endpoint", endpoint)
+                .register(meterRegistry)
+                .record(count);
+        if (count > budget.value()) {
+            meterRegistry.counter(EXCEEDED_METRIC, "endpoint", endpoint).increment();
+            log.warn("{} issued {} SQL statements, budget is {}", endpoint, count, budget.value());
+        }
+    }
+}
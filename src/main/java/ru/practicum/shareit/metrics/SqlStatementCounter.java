@@ -0,0 +1,55 @@
+package ru.practicum.shareit.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Component
+public class SqlStatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<AtomicInteger> COUNT = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        AtomicInteger count = COUNT.get();
+        if (count != null) {
+            count.incrementAndGet();
+        }
+        return sql;
+    }
+
+    public void start() {
+        COUNT.set(new AtomicInteger());
+    }
+
+    public int current() {
+        AtomicInteger count = COUNT.get();
+        return count == null ? 0 : count.get();
+    }
+
+    public Runnable propagate(Runnable task) {
+        AtomicInteger count = COUNT.get();
+        if (count == null) {
+            return task;
+        }
+        return () -> {
+            // A rejected task may run on the submitting thread, whose own counter must survive it
+            AtomicInteger previous = COUNT.get();
+            COUNT.set(count);
+            try {
+                task.run();
+            } finally {
+                if (previous == null) {
+                    COUNT.remove();
+                } else {
+                    COUNT.set(previous);
+                }
+            }
+        };
+    }
+
+    public void stop() {
+        COUNT.remove();
+    }
+}
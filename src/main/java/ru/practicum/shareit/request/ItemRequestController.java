@@ -1,16 +1,23 @@
 package ru.practicum.shareit.request;
 
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.metrics.QueryBudget;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/requests")
 @RequiredArgsConstructor
+@Validated
 public class ItemRequestController {
 
+    private static final int MAX_PAGE_SIZE = 500;
+
     private final ItemRequestService itemRequestService;
 
     @PostMapping
@@ -19,21 +26,24 @@ public class ItemRequestController {
     }
 
     @GetMapping("/{itemRequestId}")
+    @QueryBudget(2)
     public ItemRequestDto getItemRequestById(@RequestHeader("X-Sharer-User-Id") Long userId, @PathVariable Long itemRequestId) {
-        return ItemRequestMapper.toItemRequestDto(itemRequestService.getItemRequestById(userId, itemRequestId));
+        return itemRequestService.getItemRequestById(userId, itemRequestId);
     }
 
     @GetMapping("/own")
-    public List<ItemRequestDto> getItemRequestsByRequestorId(@RequestHeader("X-Sharer-User-Id") Long userId) {
-        return itemRequestService.getItemRequestsByRequestorId(userId).stream()
-                .map(ItemRequestMapper::toItemRequestDto)
-                .collect(Collectors.toList());
+    @QueryBudget(3)
+    public List<ItemRequestDto> getItemRequestsByRequestorId(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                             @RequestParam(defaultValue = "0") @PositiveOrZero int from,
+                                                             @RequestParam(defaultValue = "100") @Positive @Max(MAX_PAGE_SIZE) int size) {
+        return itemRequestService.getItemRequestsByRequestorId(userId, from, size);
     }
 
     @GetMapping
-    public List<ItemRequestDto> getAllItemRequests(@RequestHeader("X-Sharer-User-Id") Long userId) {
-        return itemRequestService.getAllItemRequests(userId).stream()
-                .map(ItemRequestMapper::toItemRequestDto)
-                .collect(Collectors.toList());
+    @QueryBudget(3)
+    public List<ItemRequestDto> getAllItemRequests(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                   @RequestParam(defaultValue = "0") @PositiveOrZero int from,
+                                                   @RequestParam(defaultValue = "100") @Positive @Max(MAX_PAGE_SIZE) int size) {
+        return itemRequestService.getAllItemRequests(userId, from, size);
     }
-}
\ No newline at end of file
+}
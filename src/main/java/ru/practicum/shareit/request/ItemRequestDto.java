@@ -1,8 +1,10 @@
 package ru.practicum.shareit.request;
 
 import lombok.Data;
+import ru.practicum.shareit.item.ItemDto;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Data
 public class ItemRequestDto {
@@ -10,4 +12,5 @@ public class ItemRequestDto {
     private String description;
     private Long requestorId;
     private LocalDateTime created;
+    private List<ItemDto> items;
 }
\ No newline at end of file
@@ -1,7 +1,10 @@
 package ru.practicum.shareit.request;
 
+import ru.practicum.shareit.item.ItemDto;
 import ru.practicum.shareit.user.User;
 
+import java.util.List;
+
 public class ItemRequestMapper {
     public static ItemRequestDto toItemRequestDto(ItemRequest itemRequest) {
         ItemRequestDto itemRequestDto = new ItemRequestDto();
@@ -12,6 +15,12 @@ public class ItemRequestMapper {
         return itemRequestDto;
     }
 
+    public static ItemRequestDto toItemRequestDto(ItemRequest itemRequest, List<ItemDto> items) {
+        ItemRequestDto itemRequestDto = toItemRequestDto(itemRequest);
+        itemRequestDto.setItems(items);
+        return itemRequestDto;
+    }
+
     public static ItemRequest fromItemRequestDto(ItemRequestDto itemRequestDto, User requestor) {
         ItemRequest itemRequest = new ItemRequest();
         itemRequest.setId(itemRequestDto.getId());
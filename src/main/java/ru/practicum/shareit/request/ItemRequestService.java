@@ -5,9 +5,9 @@ import java.util.List;
 public interface ItemRequestService {
     ItemRequest createItemRequest(Long userId, ItemRequestDto itemRequestDto);
 
-    ItemRequest getItemRequestById(Long userId, Long itemRequestId);
+    ItemRequestDto getItemRequestById(Long userId, Long itemRequestId);
 
-    List<ItemRequest> getItemRequestsByRequestorId(Long userId);
+    List<ItemRequestDto> getItemRequestsByRequestorId(Long userId, int from, int size);
 
-    List<ItemRequest> getAllItemRequests(Long userId);
+    List<ItemRequestDto> getAllItemRequests(Long userId, int from, int size);
 }
\ No newline at end of file
@@ -2,16 +2,24 @@ package ru.practicum.shareit.request;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exception.ItemRequestNotFoundException;
-import ru.practicum.shareit.exception.UserNotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemDto;
+import ru.practicum.shareit.item.ItemMapper;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.pagination.OffsetPageRequest;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.UserService;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -20,16 +28,21 @@ import java.util.stream.Collectors;
 @Transactional(readOnly = true)
 public class ItemRequestServiceImpl implements ItemRequestService {
 
+    private static final Sort FEED_SORT = Sort.by(Sort.Direction.DESC, "created", "id");
+
     private final ItemRequestRepository itemRequestRepository;
     private final UserRepository userRepository;
+    private final UserService userService;
+    private final ItemRepository itemRepository;
+    private final ItemMapper itemMapper;
 
     @Override
     @Transactional
     public ItemRequest createItemRequest(Long userId, ItemRequestDto itemRequestDto) {
         log.info("Creating item request for user {} with data {}", userId, itemRequestDto);
 
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new UserNotFoundException("User with id " + userId + " not found."));
+        userService.getUserById(userId);
+        User user = userRepository.getReferenceById(userId);
 
         if (itemRequestDto.getDescription() == null || itemRequestDto.getDescription().isBlank()) {
             throw new ValidationException("Item request description cannot be blank.");
@@ -44,33 +57,58 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     }
 
     @Override
-    public ItemRequest getItemRequestById(Long userId, Long itemRequestId) {
+    public ItemRequestDto getItemRequestById(Long userId, Long itemRequestId) {
         log.info("Getting item request {} for user {}", itemRequestId, userId);
 
-        return itemRequestRepository.findById(itemRequestId)
+        ItemRequest itemRequest = itemRequestRepository.findById(itemRequestId)
                 .orElseThrow(() -> new ItemRequestNotFoundException("Item request with id " + itemRequestId + " not found"));
+        List<ItemDto> items = itemRepository.findByRequestId(itemRequestId).stream()
+                .map(this::toItemDto)
+                .collect(Collectors.toList());
+        return ItemRequestMapper.toItemRequestDto(itemRequest, items);
     }
 
     @Override
-    public List<ItemRequest> getItemRequestsByRequestorId(Long userId) {
-        log.info("Getting item requests created by user {}", userId);
+    public List<ItemRequestDto> getItemRequestsByRequestorId(Long userId, int from, int size) {
+        log.info("Getting item requests created by user {} (from {}, size {})", userId, from, size);
 
-        userRepository.findById(userId)
-                .orElseThrow(() -> new UserNotFoundException("User with id " + userId + " not found."));
+        userService.getUserById(userId);
 
-        return itemRequestRepository.findByRequestorId(userId);
+        return withItems(itemRequestRepository.findByRequestorId(userId, page(from, size)));
     }
 
     @Override
-    public List<ItemRequest> getAllItemRequests(Long userId) {
-        log.info("Getting all item requests (except those created by user {})", userId);
+    public List<ItemRequestDto> getAllItemRequests(Long userId, int from, int size) {
+        log.info("Getting item requests of other users for user {} (from {}, size {})", userId, from, size);
 
-        userRepository.findById(userId)
-                .orElseThrow(() -> new UserNotFoundException("User with id " + userId + " not found."));
+        userService.getUserById(userId);
 
-        List<ItemRequest> allRequests = itemRequestRepository.findAll();
-        return allRequests.stream()
-                .filter(request -> !request.getRequestor().getId().equals(userId))
+        return withItems(itemRequestRepository.findByRequestorIdNot(userId, page(from, size)));
+    }
+
+    private List<ItemRequestDto> withItems(List<ItemRequest> requests) {
+        if (requests.isEmpty()) {
+            return List.of();
+        }
+        List<Long> requestIds = requests.stream()
+                .map(ItemRequest::getId)
                 .collect(Collectors.toList());
+        Map<Long, List<ItemDto>> itemsByRequestId = itemRepository.findByRequestIdIn(requestIds).stream()
+                .collect(Collectors.groupingBy(Item::getRequestId,
+                        Collectors.mapping(this::toItemDto, Collectors.toList())));
+        return requests.stream()
+                .map(request -> ItemRequestMapper.toItemRequestDto(request,
+                        itemsByRequestId.getOrDefault(request.getId(), List.of())))
+                .collect(Collectors.toList());
+    }
+
+    private ItemDto toItemDto(Item item) {
+        ItemDto itemDto = itemMapper.toItemDto(item);
+        itemDto.setOwnerId(item.getOwner().getId());
+        return itemDto;
+    }
+
+    private static Pageable page(int from, int size) {
+        return OffsetPageRequest.of(from, size, FEED_SORT);
     }
-}
\ No newline at end of file
+}
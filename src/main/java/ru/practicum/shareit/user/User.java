@@ -5,6 +5,8 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import ru.practicum.shareit.booking.Booking;
 import ru.practicum.shareit.item.Item;
 
@@ -12,6 +14,8 @@ import java.util.List;
 
 @Entity
 @Table(name = "users")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "users")
 @Data
 @Builder
 @NoArgsConstructor
@@ -28,6 +32,9 @@ public class User {
     @Column(nullable = false, unique = true)
     private String email;
 
+    @Version
+    private Long version;
+
     @OneToMany(mappedBy = "owner", fetch = FetchType.LAZY)
     private List<Item> items;
 
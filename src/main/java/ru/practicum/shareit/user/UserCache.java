@@ -0,0 +1,80 @@
+package ru.practicum.shareit.user;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.cluster.InvalidationEvent;
+import ru.practicum.shareit.cluster.InvalidationRegion;
+
+import java.io.Serializable;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Read-through cache of users. Entries are immutable snapshots, including the entity version the ETag is built from,
+ * and every read hands out a fresh {@link UserDto};
+ * writers publish a {@link InvalidationRegion#USER} invalidation, which evicts the entry here after commit and,
+ * through the cluster relay, on the other nodes (together with their second-level cache entry).
+ */
+@Component
+public class UserCache {
+
+    private static final String USERS_CACHE = "users";
+
+    private final Cache cache;
+    private final EntityManagerFactory entityManagerFactory;
+
+    public UserCache(CacheManager cacheManager, EntityManagerFactory entityManagerFactory) {
+        this.cache = Objects.requireNonNull(cacheManager.getCache(USERS_CACHE), "Cache " + USERS_CACHE + " is not configured");
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    public Optional<UserDto> get(Long userId) {
+        CachedUser cached = cache.get(userId, CachedUser.class);
+        return Optional.ofNullable(cached).map(CachedUser::toUserDto);
+    }
+
+    public Optional<Long> getVersion(Long userId) {
+        CachedUser cached = cache.get(userId, CachedUser.class);
+        return Optional.ofNullable(cached).map(CachedUser::getVersion);
+    }
+
+    public void put(User user) {
+        cache.put(user.getId(), new CachedUser(user.getId(), user.getName(), user.getEmail(), user.getVersion()));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onInvalidation(InvalidationEvent event) {
+        if (event.getRegion() != InvalidationRegion.USER) {
+            return;
+        }
+        if (event.isRegionWide()) {
+            cache.clear();
+        } else {
+            cache.evict(event.getKey());
+        }
+        if (event.isRemote()) {
+            if (event.isRegionWide()) {
+                entityManagerFactory.getCache().evict(User.class);
+            } else {
+                entityManagerFactory.getCache().evict(User.class, event.getKey());
+            }
+        }
+    }
+
+    @Value
+    private static class CachedUser implements Serializable {
+        Long id;
+        String name;
+        String email;
+        Long version;
+
+        UserDto toUserDto() {
+            return new UserDto(id, name, email);
+        }
+    }
+}
@@ -6,6 +6,8 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import ru.practicum.shareit.metrics.QueryBudget;
 
 import java.util.List;
 
@@ -28,8 +30,13 @@ public class UserController {
     }
 
     @GetMapping("/{userId}")
-    public UserDto getUserById(@PathVariable Long userId) {
+    @QueryBudget(1)
+    public UserDto getUserById(@PathVariable Long userId, WebRequest request) {
         log.info("Received request to get user with id {}", userId);
+        String eTag = userService.getUserETag(userId);
+        if (eTag != null && request.checkNotModified(eTag)) {
+            return null;
+        }
         return userService.getUserById(userId);
     }
 
@@ -8,6 +8,8 @@ public interface UserService {
 
     UserDto getUserById(Long userId);
 
+    String getUserETag(Long userId);
+
     List<UserDto> getAllUsers();
 
     UserDto updateUser(Long userId, UserDto userDto);
@@ -2,8 +2,12 @@ package ru.practicum.shareit.user;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.cluster.InvalidationEvent;
+import ru.practicum.shareit.cluster.InvalidationRegion;
+import ru.practicum.shareit.datasource.PrimaryRead;
 import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.UserNotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
@@ -20,6 +24,8 @@ public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
     private final UserMapper userMapper;
+    private final UserCache userCache;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
@@ -42,9 +48,23 @@ public class UserServiceImpl implements UserService {
     @Override
     public UserDto getUserById(Long userId) {
         log.info("Getting user with id: {}", userId);
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new UserNotFoundException("User with id " + userId + " not found"));
-        return userMapper.toUserDto(user);
+        return userCache.get(userId).orElseGet(() -> loadUser(userId)
+                .map(userMapper::toUserDto)
+                .orElseThrow(() -> new UserNotFoundException("User with id " + userId + " not found")));
+    }
+
+    @Override
+    public String getUserETag(Long userId) {
+        return userCache.getVersion(userId)
+                .or(() -> loadUser(userId).map(User::getVersion))
+                .map(String::valueOf)
+                .orElse(null);
+    }
+
+    private Optional<User> loadUser(Long userId) {
+        Optional<User> user = PrimaryRead.call(() -> userRepository.findById(userId));
+        user.ifPresent(userCache::put);
+        return user;
     }
 
     @Override
@@ -73,7 +93,9 @@ public class UserServiceImpl implements UserService {
             }
             userToUpdate.setEmail(userDto.getEmail());
         }
-        return userMapper.toUserDto(userRepository.save(userToUpdate));
+        User updatedUser = userRepository.save(userToUpdate);
+        eventPublisher.publishEvent(InvalidationEvent.of(InvalidationRegion.USER, userId));
+        return userMapper.toUserDto(updatedUser);
     }
 
     @Override
@@ -84,5 +106,6 @@ public class UserServiceImpl implements UserService {
             throw new UserNotFoundException("User with id " + userId + " not found");
         }
         userRepository.deleteById(userId);
+        eventPublisher.publishEvent(InvalidationEvent.of(InvalidationRegion.USER, userId));
     }
 }
\ No newline at end of file
@@ -0,0 +1,12 @@
+ALTER TABLE items ADD COLUMN IF NOT EXISTS last_booking_id BIGINT;
+ALTER TABLE items ADD COLUMN IF NOT EXISTS last_booking_booker_id BIGINT;
+ALTER TABLE items ADD COLUMN IF NOT EXISTS last_booking_start TIMESTAMP WITH TIME ZONE;
+ALTER TABLE items ADD COLUMN IF NOT EXISTS last_booking_end TIMESTAMP WITH TIME ZONE;
+ALTER TABLE items ADD COLUMN IF NOT EXISTS next_booking_id BIGINT;
+ALTER TABLE items ADD COLUMN IF NOT EXISTS next_booking_booker_id BIGINT;
+ALTER TABLE items ADD COLUMN IF NOT EXISTS next_booking_start TIMESTAMP WITH TIME ZONE;
+ALTER TABLE items ADD COLUMN IF NOT EXISTS next_booking_end TIMESTAMP WITH TIME ZONE;
+ALTER TABLE items ADD COLUMN IF NOT EXISTS booking_pointers_refreshed_at TIMESTAMP WITH TIME ZONE;
+ALTER TABLE items ADD COLUMN IF NOT EXISTS booking_pointers_valid_until TIMESTAMP WITH TIME ZONE;
+
+CREATE INDEX IF NOT EXISTS idx_items_booking_pointers_valid_until ON items (booking_pointers_valid_until);
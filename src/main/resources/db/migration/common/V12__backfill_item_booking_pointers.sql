@@ -0,0 +1,26 @@
+-- Items that existed before V10 have no booking pointers. Filling them here keeps the startup sweep from
+-- refreshing every item of the catalogue one transaction at a time.
+UPDATE items i SET
+    last_booking_id = (SELECT b.id FROM bookings b WHERE b.item_id = i.id AND b.status = 'APPROVED'
+        AND b.end_date < CURRENT_TIMESTAMP ORDER BY b.end_date DESC LIMIT 1),
+    last_booking_booker_id = (SELECT b.booker_id FROM bookings b WHERE b.item_id = i.id AND b.status = 'APPROVED'
+        AND b.end_date < CURRENT_TIMESTAMP ORDER BY b.end_date DESC LIMIT 1),
+    last_booking_start = (SELECT b.start_date FROM bookings b WHERE b.item_id = i.id AND b.status = 'APPROVED'
+        AND b.end_date < CURRENT_TIMESTAMP ORDER BY b.end_date DESC LIMIT 1),
+    last_booking_end = (SELECT b.end_date FROM bookings b WHERE b.item_id = i.id AND b.status = 'APPROVED'
+        AND b.end_date < CURRENT_TIMESTAMP ORDER BY b.end_date DESC LIMIT 1),
+    next_booking_id = (SELECT b.id FROM bookings b WHERE b.item_id = i.id AND b.status = 'APPROVED'
+        AND b.start_date > CURRENT_TIMESTAMP ORDER BY b.start_date LIMIT 1),
+    next_booking_booker_id = (SELECT b.booker_id FROM bookings b WHERE b.item_id = i.id AND b.status = 'APPROVED'
+        AND b.start_date > CURRENT_TIMESTAMP ORDER BY b.start_date LIMIT 1),
+    next_booking_start = (SELECT b.start_date FROM bookings b WHERE b.item_id = i.id AND b.status = 'APPROVED'
+        AND b.start_date > CURRENT_TIMESTAMP ORDER BY b.start_date LIMIT 1),
+    next_booking_end = (SELECT b.end_date FROM bookings b WHERE b.item_id = i.id AND b.status = 'APPROVED'
+        AND b.start_date > CURRENT_TIMESTAMP ORDER BY b.start_date LIMIT 1),
+    booking_pointers_valid_until = LEAST(
+        (SELECT MIN(b.start_date) FROM bookings b WHERE b.item_id = i.id AND b.status = 'APPROVED'
+            AND b.start_date > CURRENT_TIMESTAMP),
+        (SELECT MIN(b.end_date) FROM bookings b WHERE b.item_id = i.id AND b.status = 'APPROVED'
+            AND b.end_date > CURRENT_TIMESTAMP)),
+    booking_pointers_refreshed_at = CURRENT_TIMESTAMP
+WHERE i.booking_pointers_refreshed_at IS NULL;
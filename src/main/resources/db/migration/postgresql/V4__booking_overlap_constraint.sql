@@ -0,0 +1,5 @@
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+ALTER TABLE bookings ADD CONSTRAINT ex_bookings_item_approved_overlap
+    EXCLUDE USING gist (item_id WITH =, tstzrange(start_date, end_date) WITH &&)
+    WHERE (status = 'APPROVED');
@@ -0,0 +1 @@
+CREATE INDEX IF NOT EXISTS idx_bookings_waiting_start ON bookings (start_date) WHERE status = 'WAITING';
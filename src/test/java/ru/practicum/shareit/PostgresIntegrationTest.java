@@ -0,0 +1,90 @@
+package ru.practicum.shareit;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.extension.ConditionEvaluationResult;
+import org.junit.jupiter.api.extension.ExecutionCondition;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.PostgreSQLContainer;
+import ru.practicum.shareit.booking.BookingIntervalIndex;
+
+import java.util.Objects;
+
+/**
+ * Base class for tests that need a real PostgreSQL. Runs against {@code -Dshareit.test.datasource.url} (with
+ * {@code .username} and {@code .password}) when given, otherwise against a Testcontainers instance. Without either the
+ * tests are skipped, unless {@code -Dshareit.test.require-database=true} is set, in which case they fail.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@ExtendWith(PostgresIntegrationTest.DatabaseAvailable.class)
+public abstract class PostgresIntegrationTest {
+
+    private static final String EXTERNAL_URL = System.getProperty("shareit.test.datasource.url");
+
+    private static PostgreSQLContainer<?> postgres;
+
+    @Autowired
+    protected JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private BookingIntervalIndex bookingIntervalIndex;
+
+    @DynamicPropertySource
+    static void postgresProperties(DynamicPropertyRegistry registry) {
+        if (EXTERNAL_URL != null) {
+            registry.add("spring.datasource.url", () -> EXTERNAL_URL);
+            registry.add("spring.datasource.username",
+                    () -> System.getProperty("shareit.test.datasource.username", "postgres"));
+            registry.add("spring.datasource.password",
+                    () -> System.getProperty("shareit.test.datasource.password", ""));
+            return;
+        }
+        PostgreSQLContainer<?> container = container();
+        registry.add("spring.datasource.url", container::getJdbcUrl);
+        registry.add("spring.datasource.username", container::getUsername);
+        registry.add("spring.datasource.password", container::getPassword);
+    }
+
+    private static synchronized PostgreSQLContainer<?> container() {
+        if (postgres == null) {
+            postgres = new PostgreSQLContainer<>("postgres:16.1");
+            postgres.start();
+        }
+        return postgres;
+    }
+
+    protected void resetDatabase() {
+        jdbcTemplate.execute("TRUNCATE comments, bookings, items, item_requests, users RESTART IDENTITY CASCADE");
+        jdbcTemplate.execute("ALTER SEQUENCE bookings_seq RESTART WITH 1");
+        cacheManager.getCacheNames().forEach(name -> Objects.requireNonNull(cacheManager.getCache(name)).clear());
+        entityManagerFactory.getCache().evictAll();
+        bookingIntervalIndex.clear();
+    }
+
+    static class DatabaseAvailable implements ExecutionCondition {
+
+        @Override
+        public ConditionEvaluationResult evaluateExecutionCondition(ExtensionContext context) {
+            if (EXTERNAL_URL != null || Boolean.getBoolean("shareit.test.require-database")
+                    || DockerClientFactory.instance().isDockerAvailable()) {
+                return ConditionEvaluationResult.enabled("PostgreSQL is available");
+            }
+            return ConditionEvaluationResult.disabled("Neither shareit.test.datasource.url nor Docker is available");
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import ru.practicum.shareit.PostgresIntegrationTest;
+import ru.practicum.shareit.booking.service.BookingService;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class BookingDecisionTest extends PostgresIntegrationTest {
+
+    private static final long OWNER_ID = 1L;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @BeforeEach
+    void seed() {
+        resetDatabase();
+        jdbcTemplate.update("INSERT INTO users (name, email) VALUES ('owner', 'owner@example.com'), "
+                + "('booker', 'booker@example.com')");
+        jdbcTemplate.update("INSERT INTO items (name, description, available, owner_id) "
+                + "VALUES ('drill', 'cordless drill', true, 1)");
+        jdbcTemplate.update("INSERT INTO bookings (id, start_date, end_date, item_id, booker_id, status) VALUES "
+                + "(1, now() + interval '1 day', now() + interval '3 days', 1, 2, 'WAITING'), "
+                + "(2, now() + interval '2 days', now() + interval '4 days', 1, 2, 'WAITING'), "
+                + "(3, now() + interval '10 days', now() + interval '12 days', 1, 2, 'APPROVED'), "
+                + "(4, now() + interval '11 days', now() + interval '13 days', 1, 2, 'WAITING')");
+        jdbcTemplate.execute("SELECT setval('bookings_seq', 100, false)");
+    }
+
+    @Test
+    void overlappingApprovalsInOneBatchFailOnlyTheLaterOne() {
+        List<BookingDecisionResultDto> results = bookingService.decideBookings(OWNER_ID,
+                List.of(new BookingDecisionDto(1L, true), new BookingDecisionDto(2L, true)));
+
+        assertEquals(BookingStatus.APPROVED.toString(), results.get(0).getStatus());
+        assertNull(results.get(1).getStatus());
+        assertNotNull(results.get(1).getError());
+        assertEquals("WAITING", status(2L));
+    }
+
+    @Test
+    void approvalOverlappingAStoredApprovalFailsWithoutFailingTheBatch() {
+        List<BookingDecisionResultDto> results = bookingService.decideBookings(OWNER_ID,
+                List.of(new BookingDecisionDto(4L, true), new BookingDecisionDto(1L, false)));
+
+        assertNull(results.get(0).getStatus());
+        assertNotNull(results.get(0).getError());
+        assertEquals(BookingStatus.REJECTED.toString(), results.get(1).getStatus());
+        assertEquals("REJECTED", status(1L));
+    }
+
+    private String status(Long bookingId) {
+        return jdbcTemplate.queryForObject("SELECT status FROM bookings WHERE id = ?", String.class, bookingId);
+    }
+}
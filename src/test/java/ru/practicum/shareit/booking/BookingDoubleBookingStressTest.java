@@ -0,0 +1,136 @@
+package ru.practicum.shareit.booking;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import ru.practicum.shareit.PostgresIntegrationTest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Races owners approving overlapping WAITING bookings of one item over HTTP and checks that the exclusion
+ * constraint lets exactly one booking per slot through while every other approval is answered with 409.
+ */
+@Slf4j
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class BookingDoubleBookingStressTest extends PostgresIntegrationTest {
+
+    private static final long OWNER_ID = 1L;
+    private static final int BOOKERS = 16;
+    private static final int SLOTS = 50;
+    private static final int CONTENDERS_PER_SLOT = 8;
+    private static final int THREADS = 32;
+
+    @LocalServerPort
+    private int port;
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .build();
+
+    private long itemId;
+    private List<Long> bookingIds;
+
+    @BeforeEach
+    void seed() {
+        resetDatabase();
+        jdbcTemplate.update("INSERT INTO users (name, email) SELECT 'user' || g, 'user' || g || '@example.com' "
+                + "FROM generate_series(1, ?) g", BOOKERS + 1);
+        itemId = jdbcTemplate.queryForObject("INSERT INTO items (name, description, available, owner_id, "
+                + "booking_pointers_refreshed_at) VALUES ('hot item', 'everyone wants it', true, ?, now()) RETURNING id",
+                Long.class, OWNER_ID);
+
+        // Contenders for a slot are shifted by an hour so they overlap each other but never the next slot
+        LocalDateTime base = LocalDateTime.now().plusDays(1);
+        List<Object[]> rows = new ArrayList<>();
+        long id = 1;
+        for (int slot = 0; slot < SLOTS; slot++) {
+            LocalDateTime slotStart = base.plusDays(slot * 2L);
+            for (int contender = 0; contender < CONTENDERS_PER_SLOT; contender++) {
+                LocalDateTime start = slotStart.plusHours(contender);
+                rows.add(new Object[] {id++, Timestamp.valueOf(start), Timestamp.valueOf(start.plusHours(12)), itemId,
+                    2L + contender % BOOKERS});
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO bookings (id, start_date, end_date, item_id, booker_id, status) "
+                + "VALUES (?, ?, ?, ?, ?, 'WAITING')", rows);
+        jdbcTemplate.execute("SELECT setval('bookings_seq', " + id + ", false)");
+        bookingIds = new ArrayList<>();
+        rows.forEach(row -> bookingIds.add((Long) row[0]));
+        Collections.shuffle(bookingIds);
+    }
+
+    @Test
+    void concurrentApprovalsNeverDoubleBook() throws Exception {
+        Map<Integer, AtomicInteger> statuses = new ConcurrentHashMap<>();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        for (Long bookingId : bookingIds) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                    int status = approve(bookingId);
+                    statuses.computeIfAbsent(status, key -> new AtomicInteger()).incrementAndGet();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        long started = System.nanoTime();
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.MINUTES), "Approvals did not finish");
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+
+        log.info("{} approvals on one item from {} threads in {} ms ({} req/s), responses {}", bookingIds.size(),
+                THREADS, elapsedMillis, bookingIds.size() * 1000L / Math.max(1, elapsedMillis), statuses);
+
+        Integer overlaps = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM bookings a JOIN bookings b "
+                + "ON a.item_id = b.item_id AND a.id < b.id AND a.start_date < b.end_date AND b.start_date < a.end_date "
+                + "WHERE a.status = 'APPROVED' AND b.status = 'APPROVED'", Integer.class);
+        Integer approved = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM bookings WHERE status = 'APPROVED'", Integer.class);
+        assertEquals(0, overlaps, "Overlapping APPROVED bookings");
+        assertEquals(SLOTS, approved, "Exactly one booking per slot should win");
+        assertEquals(SLOTS, count(statuses, 200));
+        assertEquals(SLOTS * (CONTENDERS_PER_SLOT - 1), count(statuses, 409), "Losers should get 409: " + statuses);
+    }
+
+    private int approve(Long bookingId) {
+        HttpRequest request = HttpRequest.newBuilder(
+                        URI.create("http://localhost:" + port + "/bookings/" + bookingId + "?approved=true"))
+                .header("X-Sharer-User-Id", String.valueOf(OWNER_ID))
+                .method("PATCH", HttpRequest.BodyPublishers.noBody())
+                .build();
+        try {
+            return httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (Exception e) {
+            return -1;
+        }
+    }
+
+    private static int count(Map<Integer, AtomicInteger> statuses, int status) {
+        AtomicInteger count = statuses.get(status);
+        return count == null ? 0 : count.get();
+    }
+}
@@ -0,0 +1,81 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BookingEventSubscriptionTest {
+
+    private static final int CAPACITY = 2;
+
+    private final BookingEventSubscription subscription = new BookingEventSubscription(1L, new SseEmitter(), CAPACITY);
+
+    @Test
+    void firstOfferSchedulesADrainAndLaterOnesQueue() {
+        assertEquals(BookingEventSubscription.Offer.SCHEDULE,
+                subscription.offer(event(1L), BookingEventBroadcaster.Overflow.DROP_OLDEST));
+        assertEquals(BookingEventSubscription.Offer.QUEUED,
+                subscription.offer(event(2L), BookingEventBroadcaster.Overflow.DROP_OLDEST));
+        assertFalse(subscription.tryStartDrain());
+    }
+
+    @Test
+    void drainedBufferSchedulesTheNextOffer() {
+        subscription.offer(event(1L), BookingEventBroadcaster.Overflow.DROP_OLDEST);
+        assertEquals(1L, subscription.poll().getBookingId());
+        assertNull(subscription.poll());
+
+        assertTrue(subscription.tryStartDrain());
+        assertNull(subscription.poll());
+        assertEquals(BookingEventSubscription.Offer.SCHEDULE,
+                subscription.offer(event(2L), BookingEventBroadcaster.Overflow.DROP_OLDEST));
+    }
+
+    @Test
+    void dropOldestKeepsTheNewestEvents() {
+        fill(BookingEventBroadcaster.Overflow.DROP_OLDEST);
+
+        assertEquals(BookingEventSubscription.Offer.DROPPED,
+                subscription.offer(event(3L), BookingEventBroadcaster.Overflow.DROP_OLDEST));
+
+        assertEquals(2L, subscription.poll().getBookingId());
+        assertEquals(3L, subscription.poll().getBookingId());
+        assertNull(subscription.poll());
+    }
+
+    @Test
+    void dropNewestKeepsTheBufferedEvents() {
+        fill(BookingEventBroadcaster.Overflow.DROP_NEWEST);
+
+        assertEquals(BookingEventSubscription.Offer.DROPPED,
+                subscription.offer(event(3L), BookingEventBroadcaster.Overflow.DROP_NEWEST));
+
+        assertEquals(1L, subscription.poll().getBookingId());
+        assertEquals(2L, subscription.poll().getBookingId());
+        assertNull(subscription.poll());
+    }
+
+    @Test
+    void disconnectOverflowsAndDiscardsTheBuffer() {
+        fill(BookingEventBroadcaster.Overflow.DISCONNECT);
+
+        assertEquals(BookingEventSubscription.Offer.OVERFLOW,
+                subscription.offer(event(3L), BookingEventBroadcaster.Overflow.DISCONNECT));
+
+        assertNull(subscription.poll());
+    }
+
+    private void fill(BookingEventBroadcaster.Overflow overflow) {
+        for (long id = 1; id <= CAPACITY; id++) {
+            subscription.offer(event(id), overflow);
+        }
+    }
+
+    private static BookingEvent event(Long bookingId) {
+        return new BookingEvent(BookingEventType.CREATED, bookingId, 1L, 2L, 1L, BookingStatus.WAITING, null, null);
+    }
+}
@@ -0,0 +1,238 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.PostgresIntegrationTest;
+import ru.practicum.shareit.metrics.SqlStatementCounter;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Seeds a catalogue large enough for the planner to prefer indexes, captures the SQL that Hibernate generates for
+ * each {@link BookingRepository} query and fails if its generic plan contains a sequential scan.
+ */
+@Import(BookingQueryPlanTest.CapturingConfig.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class BookingQueryPlanTest extends PostgresIntegrationTest {
+
+    private static final int USERS = 20_000;
+    private static final int ITEMS = 50_000;
+    private static final int BOOKINGS = 500_000;
+
+    private static final long USER_ID = 42L;
+    private static final long ITEM_ID = 42L;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private CapturingSqlStatementCounter statementCounter;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${spring.datasource.url}")
+    private String url;
+
+    @Value("${spring.datasource.username}")
+    private String username;
+
+    @Value("${spring.datasource.password}")
+    private String password;
+
+    private JdbcTemplate explainTemplate;
+
+    @BeforeAll
+    void seed() {
+        // EXPLAIN (GENERIC_PLAN) takes $n placeholders literally, which only the simple query protocol passes through
+        DriverManagerDataSource explainDataSource = new DriverManagerDataSource(url, username, password);
+        Properties properties = new Properties();
+        properties.setProperty("preferQueryMode", "simple");
+        explainDataSource.setConnectionProperties(properties);
+        explainTemplate = new JdbcTemplate(explainDataSource);
+
+        resetDatabase();
+        jdbcTemplate.update("INSERT INTO users (name, email) "
+                + "SELECT 'user' || g, 'user' || g || '@example.com' FROM generate_series(1, ?) g", USERS);
+        jdbcTemplate.update("INSERT INTO items (name, description, available, owner_id, booking_pointers_refreshed_at) "
+                + "SELECT 'item ' || g, 'description ' || g, g % 4 <> 0, 1 + g % ?, now() "
+                + "FROM generate_series(1, ?) g", USERS, ITEMS);
+        // Bookings of one item are three days apart, so the APPROVED ones never trip the overlap constraint
+        jdbcTemplate.update("INSERT INTO bookings (id, start_date, end_date, item_id, booker_id, status) "
+                + "SELECT g, now() - interval '15 days' + (g / ?) * interval '3 days', "
+                + "now() - interval '14 days' + (g / ?) * interval '3 days', 1 + g % ?, 1 + (g * 7) % ?, "
+                + "(ARRAY['WAITING', 'APPROVED', 'REJECTED', 'EXPIRED'])[1 + g % 4] "
+                + "FROM generate_series(1, ?) g", ITEMS, ITEMS, ITEMS, USERS, BOOKINGS);
+        jdbcTemplate.execute("SELECT setval('bookings_seq', " + (BOOKINGS + 1) + ", false)");
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @TestFactory
+    Stream<DynamicTest> bookingQueriesDoNotScanSequentially() {
+        LocalDateTime now = LocalDateTime.now();
+        Limit limit = Limit.of(51);
+        LocalDateTime cursorStart = BookingCursor.FIRST.getStart();
+        Long cursorId = BookingCursor.FIRST.getId();
+
+        Map<String, Runnable> queries = new LinkedHashMap<>();
+        queries.put("findById", () -> bookingRepository.findById(1L));
+        queries.put("findWithoutJoinsById", () -> bookingRepository.findWithoutJoinsById(1L));
+        queries.put("findVersionById", () -> bookingRepository.findVersionById(1L));
+        queries.put("findViewsByBookerId", () -> bookingRepository.findViewsByBookerId(USER_ID));
+        queries.put("findCurrentViewsByBookerId", () -> bookingRepository.findCurrentViewsByBookerId(USER_ID, now));
+        queries.put("findPastViewsByBookerId", () -> bookingRepository.findPastViewsByBookerId(USER_ID, now));
+        queries.put("findFutureViewsByBookerId", () -> bookingRepository.findFutureViewsByBookerId(USER_ID, now));
+        queries.put("findViewsByBookerIdAndStatus",
+                () -> bookingRepository.findViewsByBookerIdAndStatus(USER_ID, BookingStatus.WAITING));
+        queries.put("findViewsByItemOwnerId", () -> bookingRepository.findViewsByItemOwnerId(USER_ID));
+        queries.put("findCurrentViewsByItemOwnerId",
+                () -> bookingRepository.findCurrentViewsByItemOwnerId(USER_ID, now));
+        queries.put("findPastViewsByItemOwnerId", () -> bookingRepository.findPastViewsByItemOwnerId(USER_ID, now));
+        queries.put("findFutureViewsByItemOwnerId",
+                () -> bookingRepository.findFutureViewsByItemOwnerId(USER_ID, now));
+        queries.put("findViewsByItemOwnerIdAndStatus",
+                () -> bookingRepository.findViewsByItemOwnerIdAndStatus(USER_ID, BookingStatus.WAITING));
+        queries.put("findViewPageByBookerId",
+                () -> bookingRepository.findViewPageByBookerId(USER_ID, cursorStart, cursorId, limit));
+        queries.put("findCurrentViewPageByBookerId",
+                () -> bookingRepository.findCurrentViewPageByBookerId(USER_ID, now, cursorStart, cursorId, limit));
+        queries.put("findPastViewPageByBookerId",
+                () -> bookingRepository.findPastViewPageByBookerId(USER_ID, now, cursorStart, cursorId, limit));
+        queries.put("findFutureViewPageByBookerId",
+                () -> bookingRepository.findFutureViewPageByBookerId(USER_ID, now, cursorStart, cursorId, limit));
+        queries.put("findViewPageByBookerIdAndStatus", () -> bookingRepository.findViewPageByBookerIdAndStatus(
+                USER_ID, BookingStatus.REJECTED, cursorStart, cursorId, limit));
+        queries.put("findViewPageByItemOwnerId",
+                () -> bookingRepository.findViewPageByItemOwnerId(USER_ID, cursorStart, cursorId, limit));
+        queries.put("findCurrentViewPageByItemOwnerId",
+                () -> bookingRepository.findCurrentViewPageByItemOwnerId(USER_ID, now, cursorStart, cursorId, limit));
+        queries.put("findPastViewPageByItemOwnerId",
+                () -> bookingRepository.findPastViewPageByItemOwnerId(USER_ID, now, cursorStart, cursorId, limit));
+        queries.put("findFutureViewPageByItemOwnerId",
+                () -> bookingRepository.findFutureViewPageByItemOwnerId(USER_ID, now, cursorStart, cursorId, limit));
+        queries.put("findViewPageByItemOwnerIdAndStatus", () -> bookingRepository.findViewPageByItemOwnerIdAndStatus(
+                USER_ID, BookingStatus.REJECTED, cursorStart, cursorId, limit));
+        queries.put("summarizeByBookerId", () -> bookingRepository.summarizeByBookerId(USER_ID, now));
+        queries.put("summarizeByItemOwnerId", () -> bookingRepository.summarizeByItemOwnerId(USER_ID, now));
+        queries.put("findFirstByItemIdAndStatusAndEndBeforeOrderByEndDesc", () -> bookingRepository
+                .findFirstByItemIdAndStatusAndEndBeforeOrderByEndDesc(ITEM_ID, BookingStatus.APPROVED, now));
+        queries.put("findFirstByItemIdAndStatusAndStartAfterOrderByStartAsc", () -> bookingRepository
+                .findFirstByItemIdAndStatusAndStartAfterOrderByStartAsc(ITEM_ID, BookingStatus.APPROVED, now));
+        queries.put("findByBookerIdAndItemIdAndEndBefore",
+                () -> bookingRepository.findByBookerIdAndItemIdAndEndBefore(USER_ID, ITEM_ID, now));
+        queries.put("findByItemIdAndStatus", () -> bookingRepository.findByItemIdAndStatus(ITEM_ID,
+                BookingStatus.APPROVED, Sort.by(Sort.Direction.DESC, "start")));
+        queries.put("findByItemIdAndStatusIn", () -> bookingRepository.findByItemIdAndStatusIn(ITEM_ID,
+                Set.of(BookingStatus.WAITING, BookingStatus.APPROVED)));
+        queries.put("findLastApprovedBookingsForItems",
+                () -> bookingRepository.findLastApprovedBookingsForItems(List.of(ITEM_ID, ITEM_ID + 1), now));
+        queries.put("findNextApprovedBookingsForItems",
+                () -> bookingRepository.findNextApprovedBookingsForItems(List.of(ITEM_ID, ITEM_ID + 1), now));
+        queries.put("findEarliestApprovedEndsForItems",
+                () -> bookingRepository.findEarliestApprovedEndsForItems(List.of(ITEM_ID, ITEM_ID + 1), now));
+        queries.put("findBookingsForItemsInList", () -> bookingRepository.findBookingsForItemsInList(
+                List.of(ITEM_ID, ITEM_ID + 1), BookingStatus.APPROVED));
+        queries.put("findDecisionCandidates", () -> bookingRepository.findDecisionCandidates(List.of(1L, 2L)));
+        queries.put("findApprovedBetween", () -> bookingRepository.findApprovedBetween(List.of(ITEM_ID, ITEM_ID + 1),
+                now, now.plusDays(7)));
+        queries.put("lockWaitingBookingsStartedBefore",
+                () -> bookingRepository.lockWaitingBookingsStartedBefore(now, 500));
+
+        return queries.entrySet().stream()
+                .map(query -> DynamicTest.dynamicTest(query.getKey(), () -> assertNoSequentialScan(query.getValue())));
+    }
+
+    private void assertNoSequentialScan(Runnable query) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        List<String> statements = transaction.execute(status -> {
+            statementCounter.capture();
+            try {
+                query.run();
+                return statementCounter.captured();
+            } finally {
+                status.setRollbackOnly();
+            }
+        });
+        assertFalse(statements.isEmpty(), "The query issued no SQL");
+        for (String sql : statements) {
+            String plan = String.join("\n", explainTemplate.queryForList(
+                    "EXPLAIN (GENERIC_PLAN) " + numberParameters(sql), String.class));
+            assertTrue(!plan.contains("Seq Scan"), () -> "Sequential scan in the plan of\n" + sql + "\n" + plan);
+        }
+    }
+
+    private static String numberParameters(String sql) {
+        StringBuilder numbered = new StringBuilder(sql.length() + 16);
+        int parameter = 0;
+        boolean quoted = false;
+        for (char c : sql.toCharArray()) {
+            if (c == '\'') {
+                quoted = !quoted;
+            }
+            if (c == '?' && !quoted) {
+                numbered.append('$').append(++parameter);
+            } else {
+                numbered.append(c);
+            }
+        }
+        return numbered.toString();
+    }
+
+    static class CapturingSqlStatementCounter extends SqlStatementCounter {
+
+        private final ThreadLocal<List<String>> statements = new ThreadLocal<>();
+
+        @Override
+        public String inspect(String sql) {
+            List<String> captured = statements.get();
+            if (captured != null) {
+                captured.add(sql);
+            }
+            return super.inspect(sql);
+        }
+
+        void capture() {
+            statements.set(new ArrayList<>());
+        }
+
+        List<String> captured() {
+            List<String> captured = statements.get();
+            statements.remove();
+            return captured;
+        }
+    }
+
+    @TestConfiguration
+    static class CapturingConfig {
+
+        @Bean
+        @Primary
+        CapturingSqlStatementCounter capturingSqlStatementCounter() {
+            return new CapturingSqlStatementCounter();
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package ru.practicum.shareit.metrics;
+
+import jakarta.servlet.ServletContext;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerExecutionChain;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+import ru.practicum.shareit.PostgresIntegrationTest;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Runs every endpoint that declares a {@link QueryBudget} against a freshly seeded database with cold caches and
+ * stale booking pointers, i.e. on its most expensive path, and fails if it issues more statements than its budget.
+ */
+@AutoConfigureMockMvc
+class QueryBudgetTest extends PostgresIntegrationTest {
+
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+    private static final long OWNER_ID = 1L;
+    private static final long BOOKER_ID = 2L;
+    private static final long ITEM_ID = 1L;
+    private static final long REQUEST_ID = 1L;
+    private static final long PAST_BOOKING_ID = 1L;
+    private static final long WAITING_BOOKING_ID = 3L;
+    private static final long OTHER_WAITING_BOOKING_ID = 4L;
+    private static final long SECOND_ITEM_WAITING_BOOKING_ID = 9L;
+    private static final long SECOND_ITEM_OTHER_WAITING_BOOKING_ID = 10L;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ServletContext servletContext;
+
+    @Autowired
+    @Qualifier("requestMappingHandlerMapping")
+    private RequestMappingHandlerMapping handlerMapping;
+
+    @TestFactory
+    Stream<DynamicTest> endpointsStayWithinTheirQueryBudget() {
+        return requests().entrySet().stream()
+                .map(request -> DynamicTest.dynamicTest(request.getKey(), () -> {
+                    seed();
+                    assertWithinBudget(request.getKey(), request.getValue());
+                }));
+    }
+
+    @Test
+    void everyBudgetedEndpointIsCovered() throws Exception {
+        Set<HandlerMethod> covered = new HashSet<>();
+        for (MockHttpServletRequestBuilder request : requests().values()) {
+            HandlerExecutionChain chain = handlerMapping.getHandler(request.buildRequest(servletContext));
+            assertNotNull(chain);
+            covered.add((HandlerMethod) chain.getHandler());
+        }
+        Set<String> missing = handlerMapping.getHandlerMethods().entrySet().stream()
+                .filter(handler -> handler.getValue().hasMethodAnnotation(QueryBudget.class))
+                .filter(handler -> covered.stream().noneMatch(method -> method.getMethod()
+                        .equals(handler.getValue().getMethod())))
+                .map(handler -> handler.getKey().toString())
+                .collect(Collectors.toSet());
+        assertEquals(Set.of(), missing, "Endpoints with a @QueryBudget but no case in this test");
+    }
+
+    @Test
+    void warmUserReadIssuesNoStatements() throws Exception {
+        seed();
+        mockMvc.perform(get("/users/{userId}", BOOKER_ID)).andExpect(status().isOk());
+
+        MvcResult result = mockMvc.perform(get("/users/{userId}", BOOKER_ID))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        assertEquals("0", result.getResponse().getHeader(QueryCountFilter.QUERY_COUNT_HEADER));
+    }
+
+    private Map<String, MockHttpServletRequestBuilder> requests() {
+        LocalDateTime start = LocalDateTime.now().plusDays(30);
+        Map<String, MockHttpServletRequestBuilder> requests = new LinkedHashMap<>();
+        requests.put("POST /bookings", post("/bookings").header(USER_HEADER, BOOKER_ID)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"itemId\":" + ITEM_ID + ",\"start\":\"" + start + "\",\"end\":\"" + start.plusHours(2)
+                        + "\"}"));
+        requests.put("PATCH /bookings/{id} approve", patch("/bookings/{bookingId}", WAITING_BOOKING_ID)
+                .param("approved", "true").header(USER_HEADER, OWNER_ID));
+        requests.put("PATCH /bookings/owner/bulk", patch("/bookings/owner/bulk").header(USER_HEADER, OWNER_ID)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[{\"bookingId\":" + WAITING_BOOKING_ID + ",\"approved\":true},"
+                        + "{\"bookingId\":" + OTHER_WAITING_BOOKING_ID + ",\"approved\":false},"
+                        + "{\"bookingId\":" + SECOND_ITEM_WAITING_BOOKING_ID + ",\"approved\":true},"
+                        + "{\"bookingId\":" + SECOND_ITEM_OTHER_WAITING_BOOKING_ID + ",\"approved\":false}]"));
+        requests.put("GET /bookings/{id}", get("/bookings/{bookingId}", PAST_BOOKING_ID).header(USER_HEADER, BOOKER_ID));
+        requests.put("GET /bookings", get("/bookings").header(USER_HEADER, BOOKER_ID));
+        requests.put("GET /bookings page", get("/bookings").param("limit", "10").header(USER_HEADER, BOOKER_ID));
+        requests.put("GET /bookings/owner", get("/bookings/owner").header(USER_HEADER, OWNER_ID));
+        requests.put("GET /bookings/owner page",
+                get("/bookings/owner").param("limit", "10").header(USER_HEADER, OWNER_ID));
+        requests.put("GET /bookings/summary", get("/bookings/summary").header(USER_HEADER, BOOKER_ID));
+        requests.put("GET /bookings/owner/summary", get("/bookings/owner/summary").header(USER_HEADER, OWNER_ID));
+        requests.put("GET /items/{id} owner", get("/items/{itemId}", ITEM_ID).header(USER_HEADER, OWNER_ID));
+        requests.put("GET /items/{id} other user", get("/items/{itemId}", ITEM_ID).header(USER_HEADER, BOOKER_ID));
+        requests.put("GET /items", get("/items").header(USER_HEADER, OWNER_ID));
+        requests.put("GET /items/search", get("/items/search").param("text", "drill"));
+        requests.put("GET /users/{id}", get("/users/{userId}", BOOKER_ID));
+        requests.put("GET /requests/{id}", get("/requests/{requestId}", REQUEST_ID).header(USER_HEADER, OWNER_ID));
+        requests.put("GET /requests/own", get("/requests/own").header(USER_HEADER, BOOKER_ID));
+        requests.put("GET /requests", get("/requests").header(USER_HEADER, OWNER_ID));
+        return requests;
+    }
+
+    /**
+     * Several rows per association (items per owner and request, bookings and comments per item, distinct bookers
+     * and authors), so a per-row lazy load shows up as statements beyond the budget.
+     */
+    private void seed() {
+        resetDatabase();
+        jdbcTemplate.update("INSERT INTO users (name, email) VALUES ('owner', 'owner@example.com'), "
+                + "('booker', 'booker@example.com'), ('other owner', 'other.owner@example.com'), "
+                + "('second booker', 'second.booker@example.com'), ('third booker', 'third.booker@example.com')");
+        jdbcTemplate.update("INSERT INTO item_requests (description, requestor_id, created) VALUES "
+                + "('need a drill', 2, now()), ('need a saw', 2, now()), ('need a ladder', 4, now()), "
+                + "('need a tent', 3, now())");
+        // No booking_pointers_refreshed_at: owner reads take the stale-pointer path that queries bookings
+        jdbcTemplate.update("INSERT INTO items (name, description, available, owner_id, request_id) VALUES "
+                + "('drill', 'cordless drill', true, 1, 1), ('hammer drill', 'heavy drill', true, 1, 1), "
+                + "('saw', 'circular saw', true, 1, 2), ('drill press', 'bench drill', true, 3, 3), "
+                + "('ladder', 'folding ladder', true, 3, 3), ('tent', 'drill-free tent', true, 1, 4)");
+        // Six bookings per item, ids (item - 1) * 6 + n, none of them overlapping
+        jdbcTemplate.update("INSERT INTO bookings (id, start_date, end_date, item_id, booker_id, status) "
+                + "SELECT (i.id - 1) * 6 + s.n, now() + s.start_day * interval '1 day', "
+                + "now() + (s.start_day + 1) * interval '1 day', i.id, s.booker, s.status FROM items i "
+                + "CROSS JOIN (VALUES (1, -10, 2, 'APPROVED'), (2, -8, 4, 'APPROVED'), (3, 1, 2, 'WAITING'), "
+                + "(4, 3, 5, 'WAITING'), (5, 5, 4, 'APPROVED'), (6, -6, 5, 'REJECTED')) "
+                + "AS s (n, start_day, booker, status)");
+        jdbcTemplate.execute("SELECT setval('bookings_seq', 100, false)");
+        jdbcTemplate.update("INSERT INTO comments (text, item_id, author_id, created) "
+                + "SELECT 'works, says ' || a.author, i.id, a.author, now() FROM items i "
+                + "CROSS JOIN (VALUES (2), (4), (5)) AS a (author)");
+    }
+
+    private void assertWithinBudget(String endpoint, MockHttpServletRequestBuilder request) throws Exception {
+        MvcResult result = mockMvc.perform(request)
+                .andExpect(status().is2xxSuccessful())
+                .andReturn();
+        QueryBudget budget = ((HandlerMethod) Objects.requireNonNull(result.getHandler()))
+                .getMethodAnnotation(QueryBudget.class);
+        assertNotNull(budget, endpoint + " has no @QueryBudget");
+        int count = Integer.parseInt(Objects.requireNonNull(
+                result.getResponse().getHeader(QueryCountFilter.QUERY_COUNT_HEADER)));
+        assertTrue(count <= budget.value(),
+                endpoint + " issued " + count + " SQL statements, budget is " + budget.value());
+    }
+}
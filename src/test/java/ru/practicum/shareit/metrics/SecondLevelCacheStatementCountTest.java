@@ -0,0 +1,116 @@
+package ru.practicum.shareit.metrics;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import ru.practicum.shareit.PostgresIntegrationTest;
+
+import java.util.Objects;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Measures how many SQL statements the "l2cache" profile saves: each request runs once with the second-level and
+ * query caches empty and once with them warm. The Spring "users" cache is cleared before both runs so the
+ * difference is down to Hibernate alone.
+ */
+@Slf4j
+@AutoConfigureMockMvc
+@ActiveProfiles("l2cache")
+class SecondLevelCacheStatementCountTest extends PostgresIntegrationTest {
+
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+    private static final long OWNER_ID = 1L;
+    private static final long BOOKER_ID = 2L;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private long itemId;
+    private long bookingId;
+
+    @BeforeEach
+    void seed() {
+        resetDatabase();
+        jdbcTemplate.update("INSERT INTO users (name, email) VALUES ('owner', 'owner@example.com'), "
+                + "('booker', 'booker@example.com')");
+        itemId = jdbcTemplate.queryForObject("INSERT INTO items (name, description, available, owner_id, "
+                + "booking_pointers_refreshed_at) VALUES ('drill', 'cordless drill', true, ?, now()) RETURNING id",
+                Long.class, OWNER_ID);
+        jdbcTemplate.update("INSERT INTO comments (text, item_id, author_id, created) VALUES ('works', ?, ?, now())",
+                itemId, BOOKER_ID);
+        bookingId = jdbcTemplate.queryForObject("INSERT INTO bookings (id, start_date, end_date, item_id, booker_id, "
+                + "status) VALUES (1, now() - interval '3 days', now() - interval '2 days', ?, ?, 'APPROVED') "
+                + "RETURNING id", Long.class, itemId, BOOKER_ID);
+    }
+
+    @Test
+    void itemReadIssuesFewerStatementsWhenWarm() throws Exception {
+        assertFewerStatementsWhenWarm("GET /items/{id}",
+                () -> get("/items/{itemId}", itemId).header(USER_HEADER, BOOKER_ID));
+    }
+
+    @Test
+    void ownerItemListIssuesFewerStatementsWhenWarm() throws Exception {
+        assertFewerStatementsWhenWarm("GET /items",
+                () -> get("/items").header(USER_HEADER, OWNER_ID));
+    }
+
+    @Test
+    void bookingReadIssuesFewerStatementsWhenWarm() throws Exception {
+        assertFewerStatementsWhenWarm("GET /bookings/{id}",
+                () -> get("/bookings/{bookingId}", bookingId).header(USER_HEADER, BOOKER_ID));
+    }
+
+    @Test
+    void bookerListingIssuesFewerStatementsWhenWarm() throws Exception {
+        assertFewerStatementsWhenWarm("GET /bookings", () -> get("/bookings").header(USER_HEADER, BOOKER_ID));
+    }
+
+    @Test
+    void ownerListingIssuesFewerStatementsWhenWarm() throws Exception {
+        assertFewerStatementsWhenWarm("GET /bookings/owner",
+                () -> get("/bookings/owner").header(USER_HEADER, OWNER_ID));
+    }
+
+    private void assertFewerStatementsWhenWarm(String endpoint, Supplier<RequestBuilder> request) throws Exception {
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+        clearSpringCaches();
+        int cold = statements(request.get());
+        clearSpringCaches();
+        int warm = statements(request.get());
+
+        log.info("{}: {} SQL statements with cold second-level cache, {} warm", endpoint, cold, warm);
+        assertTrue(warm < cold, endpoint + " issued " + warm + " statements warm, " + cold + " cold");
+    }
+
+    private int statements(RequestBuilder request) throws Exception {
+        MvcResult result = mockMvc.perform(request)
+                .andExpect(status().is2xxSuccessful())
+                .andReturn();
+        return Integer.parseInt(Objects.requireNonNull(
+                result.getResponse().getHeader(QueryCountFilter.QUERY_COUNT_HEADER)));
+    }
+
+    private void clearSpringCaches() {
+        cacheManager.getCacheNames().forEach(name -> Objects.requireNonNull(cacheManager.getCache(name)).clear());
+    }
+}
@@ -0,0 +1,30 @@
+package ru.practicum.shareit.pagination;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class OffsetPageRequestTest {
+
+    private static final Sort BY_ID = Sort.by("id");
+
+    @Test
+    void keepsOffsetThatIsNotAMultipleOfSize() {
+        Pageable page = OffsetPageRequest.of(3, 5, BY_ID);
+
+        assertEquals(3, page.getOffset());
+        assertEquals(5, page.getPageSize());
+        assertEquals(BY_ID, page.getSort());
+        assertEquals(8, page.next().getOffset());
+        assertEquals(0, page.previousOrFirst().getOffset());
+    }
+
+    @Test
+    void rejectsNegativeOffsetAndEmptyPage() {
+        assertThrows(IllegalArgumentException.class, () -> OffsetPageRequest.of(-1, 5, BY_ID));
+        assertThrows(IllegalArgumentException.class, () -> OffsetPageRequest.of(0, 0, BY_ID));
+    }
+}
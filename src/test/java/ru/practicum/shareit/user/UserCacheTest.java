@@ -0,0 +1,66 @@
+package ru.practicum.shareit.user;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.PostgresIntegrationTest;
+import ru.practicum.shareit.exception.UserNotFoundException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class UserCacheTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Long userId;
+
+    @BeforeEach
+    void seed() {
+        resetDatabase();
+        userId = userService.createUser(new UserDto(null, "alice", "alice@example.com")).getId();
+    }
+
+    @Test
+    void callersCannotChangeTheCachedUser() {
+        userService.getUserById(userId).setName("mallory");
+
+        assertEquals("alice", userService.getUserById(userId).getName());
+    }
+
+    @Test
+    void updateIsVisibleAfterCommit() {
+        userService.getUserById(userId);
+
+        userService.updateUser(userId, new UserDto(null, "alice2", null));
+
+        assertEquals("alice2", userService.getUserById(userId).getName());
+    }
+
+    @Test
+    void rolledBackUpdateKeepsTheCachedUser() {
+        userService.getUserById(userId);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            userService.updateUser(userId, new UserDto(null, "alice2", null));
+            status.setRollbackOnly();
+        });
+
+        assertEquals("alice", userService.getUserById(userId).getName());
+    }
+
+    @Test
+    void deleteEvictsTheCachedUser() {
+        userService.getUserById(userId);
+
+        userService.deleteUser(userId);
+
+        assertThrows(UserNotFoundException.class, () -> userService.getUserById(userId));
+    }
+}